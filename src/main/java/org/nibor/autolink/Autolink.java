@@ -1,5 +1,12 @@
 package org.nibor.autolink;
 
+import org.nibor.autolink.internal.LinkSpanImpl;
+import org.nibor.autolink.internal.Utf8CharSequence;
+
+import java.nio.ByteBuffer;
+import java.util.Iterator;
+import java.util.Objects;
+
 /**
  * Utility class for processing text with links.
  */
@@ -39,4 +46,80 @@ public class Autolink {
         return sb.toString();
     }
 
+    /**
+     * Convert the indexes of links extracted from UTF-8 input from byte offsets to UTF-16 offsets, in other words to
+     * indexes in the string that the input decodes to. That's also the case for malformed input, where decoding
+     * replaces invalid bytes with U+FFFD.
+     * <p>
+     * The conversion is done lazily and incrementally, so converting all links of an input is linear in the size of
+     * the input if the links are in order (as returned by {@link LinkExtractor#extractUtf8Links}).
+     *
+     * @param utf8 the UTF-8 encoded input text that the links were extracted from, must not be null
+     * @param offset the offset of the input in the array
+     * @param length the length of the input in bytes
+     * @param links the links with byte offsets relative to {@code offset}, must not be null
+     * @return a lazy iterable for the links with UTF-16 offsets
+     */
+    public static Iterable<LinkSpan> toUtf16(byte[] utf8, int offset, int length, Iterable<LinkSpan> links) {
+        if (utf8 == null) {
+            throw new NullPointerException("utf8 must not be null");
+        }
+        Objects.checkFromIndexSize(offset, length, utf8.length);
+        return toUtf16(new Utf8CharSequence(utf8, offset, length), links);
+    }
+
+    /**
+     * Convert the indexes of links extracted from UTF-8 input from byte offsets to UTF-16 offsets, see
+     * {@link #toUtf16(byte[], int, int, Iterable)}. The position of the buffer is not changed.
+     *
+     * @param utf8 the UTF-8 encoded input text that the links were extracted from, from its position to its limit,
+     * must not be null
+     * @param links the links with byte offsets relative to the position of the buffer, must not be null
+     * @return a lazy iterable for the links with UTF-16 offsets
+     */
+    public static Iterable<LinkSpan> toUtf16(ByteBuffer utf8, Iterable<LinkSpan> links) {
+        if (utf8 == null) {
+            throw new NullPointerException("utf8 must not be null");
+        }
+        return toUtf16(new Utf8CharSequence(utf8), links);
+    }
+
+    private static Iterable<LinkSpan> toUtf16(final Utf8CharSequence input, final Iterable<LinkSpan> links) {
+        if (links == null) {
+            throw new NullPointerException("links must not be null");
+        }
+        return new Iterable<LinkSpan>() {
+            @Override
+            public Iterator<LinkSpan> iterator() {
+                final Iterator<LinkSpan> iterator = links.iterator();
+                return new Iterator<LinkSpan>() {
+                    private int byteIndex = 0;
+                    private int charIndex = 0;
+
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public LinkSpan next() {
+                        LinkSpan link = iterator.next();
+                        int begin = advance(link.getBeginIndex());
+                        int end = advance(link.getEndIndex());
+                        return new LinkSpanImpl(link.getType(), begin, end);
+                    }
+
+                    private int advance(int index) {
+                        if (index < byteIndex) {
+                            byteIndex = 0;
+                            charIndex = 0;
+                        }
+                        charIndex += input.utf16Length(byteIndex, index);
+                        byteIndex = index;
+                        return charIndex;
+                    }
+                };
+            }
+        };
+    }
 }
@@ -0,0 +1,32 @@
+package org.nibor.autolink;
+
+/**
+ * A link extracted from a stream of input, e.g. see {@link LinkExtractor#extractLinks(java.io.Reader, java.util.function.Consumer)}.
+ * <p>
+ * Unlike with {@link LinkSpan}, the input is usually no longer available after extraction, so the text of the link is
+ * included. Offsets are {@code long} as streams can be larger than what fits into a string.
+ */
+public interface ExtractedLink {
+
+    /**
+     * @return the type of link
+     */
+    LinkType getType();
+
+    /**
+     * @return begin offset (inclusive) in the whole stream that this link starts at
+     */
+    long getBeginOffset();
+
+    /**
+     * @return end offset (exclusive) in the whole stream that this link ends at; in other words, offset of first
+     * character after link
+     */
+    long getEndOffset();
+
+    /**
+     * @return the text of the link
+     */
+    String getText();
+
+}
@@ -0,0 +1,293 @@
+package org.nibor.autolink;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Renders plain text as HTML with the links in it turned into anchors ({@code <a>} elements). Text and attribute
+ * values are HTML-escaped while the links are extracted, and the output is written directly to an {@link Appendable}
+ * (e.g. a {@link java.io.Writer} or {@link StringBuilder}) without creating intermediate strings.
+ * <p>
+ * Email addresses are linked with a {@code mailto:} prefix and WWW links with an {@code http://} prefix. Only links
+ * with an allowed scheme are turned into anchors (by default http, https, ftp and mailto), others are rendered as
+ * escaped text. This is so that text such as {@code javascript://%0Aalert(1)} doesn't end up as a script in an
+ * {@code href}, see {@link Builder#allowedSchemes(Set)}.
+ * <p>
+ * Create and configure a renderer using {@link #builder()}. It is immutable and thread-safe.
+ */
+public class HtmlRenderer {
+
+    private final LinkExtractor linkExtractor;
+    private final String attributes;
+    private final String[] allowedSchemes;
+    private final boolean emailAllowed;
+    private final boolean wwwAllowed;
+
+    private HtmlRenderer(LinkExtractor linkExtractor, String attributes, Set<String> allowedSchemes) {
+        this.linkExtractor = linkExtractor;
+        this.attributes = attributes;
+        this.allowedSchemes = allowedSchemes.toArray(new String[0]);
+        this.emailAllowed = allowedSchemes.contains("mailto");
+        this.wwwAllowed = allowedSchemes.contains("http");
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    /**
+     * Render the input text as HTML.
+     *
+     * @param input the input text (plain text, not HTML), must not be null
+     * @return the rendered HTML, or the input itself if it doesn't contain any links or characters that need to be
+     * escaped
+     */
+    public CharSequence render(CharSequence input) {
+        if (input == null) {
+            throw new NullPointerException("input must not be null");
+        }
+        LinkMatcher matcher = linkExtractor.matcher(input);
+        boolean hasLink = matcher.find();
+        if (!hasLink && indexOfSpecial(input, 0, input.length()) == -1) {
+            return input;
+        }
+        StringBuilder sb = new StringBuilder(input.length() + input.length() / 8 + 16);
+        try {
+            render(input, matcher, hasLink, sb);
+        } catch (IOException e) {
+            // Can't happen with StringBuilder
+            throw new UncheckedIOException(e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Render the input text as HTML to the output.
+     *
+     * @param input the input text (plain text, not HTML), must not be null
+     * @param output the output to append the HTML to, must not be null
+     * @throws IOException if appending to the output fails
+     */
+    public void render(CharSequence input, Appendable output) throws IOException {
+        if (input == null) {
+            throw new NullPointerException("input must not be null");
+        }
+        if (output == null) {
+            throw new NullPointerException("output must not be null");
+        }
+        LinkMatcher matcher = linkExtractor.matcher(input);
+        render(input, matcher, matcher.find(), output);
+    }
+
+    private void render(CharSequence input, LinkMatcher matcher, boolean hasLink, Appendable output)
+            throws IOException {
+        int index = 0;
+        boolean found = hasLink;
+        while (found) {
+            int start = matcher.start();
+            int end = matcher.end();
+            if (!isAllowed(input, matcher.type(), start, end)) {
+                // Rendered as text, together with the text before it
+                found = matcher.find();
+                continue;
+            }
+            appendEscaped(input, index, start, output);
+            output.append("<a href=\"");
+            if (matcher.type() == LinkType.EMAIL) {
+                output.append("mailto:");
+            } else if (matcher.type() == LinkType.WWW) {
+                output.append("http://");
+            }
+            appendEscaped(input, start, end, output);
+            output.append('"').append(attributes).append('>');
+            appendEscaped(input, start, end, output);
+            output.append("</a>");
+            index = end;
+            found = matcher.find();
+        }
+        appendEscaped(input, index, input.length(), output);
+    }
+
+    private boolean isAllowed(CharSequence input, LinkType type, int beginIndex, int endIndex) {
+        if (type == LinkType.EMAIL) {
+            return emailAllowed;
+        } else if (type == LinkType.WWW) {
+            return wwwAllowed;
+        }
+        // The scheme of a URL consists of the characters before the first colon, compare it without allocating
+        int colon = beginIndex;
+        while (colon < endIndex && input.charAt(colon) != ':') {
+            colon++;
+        }
+        for (String scheme : allowedSchemes) {
+            if (scheme.length() == colon - beginIndex && regionMatchesIgnoreCase(input, beginIndex, scheme)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean regionMatchesIgnoreCase(CharSequence input, int beginIndex, String lowerCase) {
+        for (int i = 0; i < lowerCase.length(); i++) {
+            char c = input.charAt(beginIndex + i);
+            if (c >= 'A' && c <= 'Z') {
+                c = (char) (c + ('a' - 'A'));
+            }
+            if (c != lowerCase.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void appendEscaped(CharSequence input, int beginIndex, int endIndex, Appendable output)
+            throws IOException {
+        int index = beginIndex;
+        int special;
+        while ((special = indexOfSpecial(input, index, endIndex)) != -1) {
+            output.append(input, index, special);
+            output.append(escape(input.charAt(special)));
+            index = special + 1;
+        }
+        output.append(input, index, endIndex);
+    }
+
+    private static int indexOfSpecial(CharSequence input, int beginIndex, int endIndex) {
+        for (int i = beginIndex; i < endIndex; i++) {
+            if (escape(input.charAt(i)) != null) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static String escape(char c) {
+        switch (c) {
+            case '&':
+                return "&amp;";
+            case '<':
+                return "&lt;";
+            case '>':
+                return "&gt;";
+            case '"':
+                return "&quot;";
+            case '\'':
+                return "&#39;";
+        }
+        return null;
+    }
+
+    /**
+     * Builder for configuring the HTML renderer.
+     */
+    public static class Builder {
+
+        private LinkExtractor linkExtractor = null;
+        private String rel = null;
+        private String target = null;
+        private String cssClass = null;
+        private Set<String> allowedSchemes = Set.of("http", "https", "ftp", "mailto");
+
+        private Builder() {
+        }
+
+        /**
+         * @param linkExtractor the extractor to use for finding links (by default, one that extracts all types of
+         * links)
+         * @return this builder
+         */
+        public Builder linkExtractor(LinkExtractor linkExtractor) {
+            if (linkExtractor == null) {
+                throw new NullPointerException("linkExtractor must not be null");
+            }
+            this.linkExtractor = linkExtractor;
+            return this;
+        }
+
+        /**
+         * @param rel the value of the {@code rel} attribute of anchors, e.g. "nofollow", or null for none (the default)
+         * @return this builder
+         */
+        public Builder rel(String rel) {
+            this.rel = rel;
+            return this;
+        }
+
+        /**
+         * @param target the value of the {@code target} attribute of anchors, e.g. "_blank", or null for none (the
+         * default)
+         * @return this builder
+         */
+        public Builder target(String target) {
+            this.target = target;
+            return this;
+        }
+
+        /**
+         * @param cssClass the value of the {@code class} attribute of anchors, or null for none (the default)
+         * @return this builder
+         */
+        public Builder cssClass(String cssClass) {
+            this.cssClass = cssClass;
+            return this;
+        }
+
+        /**
+         * @param allowedSchemes the schemes of links that are turned into anchors, compared case-insensitively (by
+         * default, http, https, ftp and mailto); email addresses are linked as mailto and WWW links as http. Links
+         * with other schemes, e.g. {@code javascript:} or {@code data:}, are rendered as escaped text.
+         * @return this builder
+         */
+        public Builder allowedSchemes(String... allowedSchemes) {
+            if (allowedSchemes == null) {
+                throw new NullPointerException("allowedSchemes must not be null");
+            }
+            return this.allowedSchemes(Set.of(allowedSchemes));
+        }
+
+        /**
+         * @param allowedSchemes the schemes of links that are turned into anchors, see
+         * {@link #allowedSchemes(String...)}
+         * @return this builder
+         */
+        public Builder allowedSchemes(Set<String> allowedSchemes) {
+            if (allowedSchemes == null) {
+                throw new NullPointerException("allowedSchemes must not be null");
+            }
+            Set<String> schemes = new HashSet<>();
+            for (String scheme : allowedSchemes) {
+                schemes.add(scheme.toLowerCase(Locale.ROOT));
+            }
+            this.allowedSchemes = schemes;
+            return this;
+        }
+
+        /**
+         * @return the configured renderer
+         */
+        public HtmlRenderer build() {
+            StringBuilder attributes = new StringBuilder();
+            try {
+                appendAttribute(attributes, "rel", rel);
+                appendAttribute(attributes, "target", target);
+                appendAttribute(attributes, "class", cssClass);
+            } catch (IOException e) {
+                // Can't happen with StringBuilder
+                throw new UncheckedIOException(e);
+            }
+            LinkExtractor extractor = linkExtractor != null ? linkExtractor : LinkExtractor.builder().build();
+            return new HtmlRenderer(extractor, attributes.toString(), allowedSchemes);
+        }
+
+        private static void appendAttribute(StringBuilder sb, String name, String value) throws IOException {
+            if (value != null) {
+                sb.append(' ').append(name).append("=\"");
+                appendEscaped(value, 0, value.length(), sb);
+                sb.append('"');
+            }
+        }
+    }
+}
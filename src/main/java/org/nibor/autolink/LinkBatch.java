@@ -0,0 +1,99 @@
+package org.nibor.autolink;
+
+import java.util.Arrays;
+
+/**
+ * The links of a batch of documents, see {@link LinkExtractor#extractBatch(java.util.List, LinkBatch)}. The links of
+ * all documents are stored one after another like in a {@link LinkSpanBuffer}, with an index of where the links of
+ * each document start and end:
+ * <pre><code>
+ * LinkBatch batch = new LinkBatch();
+ * linkExtractor.extractBatch(messages, batch);
+ * for (int document = 0; document &lt; batch.documentCount(); document++) {
+ *     for (int i = batch.linkStart(document); i &lt; batch.linkEnd(document); i++) {
+ *         String link = messages.get(document).substring(batch.getBeginIndex(i), batch.getEndIndex(i));
+ *     }
+ * }
+ * </code></pre>
+ * Like the buffer, the batch can be cleared and filled again without allocating. Not thread-safe.
+ */
+public class LinkBatch extends LinkSpanBuffer {
+
+    // The index after the last link of each document
+    private int[] linkEnds = new int[16];
+    private int documentCount = 0;
+
+    /**
+     * Create an empty batch with a default initial capacity.
+     */
+    public LinkBatch() {
+        super();
+    }
+
+    /**
+     * Create an empty batch.
+     *
+     * @param initialCapacity the number of links that can be added before the batch needs to grow
+     */
+    public LinkBatch(int initialCapacity) {
+        super(initialCapacity);
+    }
+
+    /**
+     * Remove all documents and links, keeping the allocated capacity for reuse.
+     */
+    @Override
+    public void clear() {
+        super.clear();
+        documentCount = 0;
+    }
+
+    /**
+     * @return the number of documents in the batch
+     */
+    public int documentCount() {
+        return documentCount;
+    }
+
+    /**
+     * @param document the index of the document in the batch
+     * @return the index of the first link of the document
+     */
+    public int linkStart(int document) {
+        checkDocument(document);
+        return document == 0 ? 0 : linkEnds[document - 1];
+    }
+
+    /**
+     * @param document the index of the document in the batch
+     * @return the index after the last link of the document, the same as {@link #linkStart} if it has no links
+     */
+    public int linkEnd(int document) {
+        checkDocument(document);
+        return linkEnds[document];
+    }
+
+    /**
+     * @param document the index of the document in the batch
+     * @return the number of links of the document
+     */
+    public int linkCount(int document) {
+        return linkEnd(document) - linkStart(document);
+    }
+
+    /**
+     * End the current document: the links added since the previous document belong to it.
+     */
+    void endDocument() {
+        if (documentCount == linkEnds.length) {
+            linkEnds = Arrays.copyOf(linkEnds, Math.max(16, documentCount + (documentCount >> 1)));
+        }
+        linkEnds[documentCount++] = size();
+    }
+
+    private void checkDocument(int document) {
+        if (document < 0 || document >= documentCount) {
+            throw new IndexOutOfBoundsException("document " + document + ", document count " + documentCount);
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package org.nibor.autolink;
+
+/**
+ * Callback for extracted links, see {@link LinkExtractor#extractLinks(CharSequence, LinkConsumer)}.
+ * <p>
+ * Links are passed as primitive values, so extraction doesn't need to allocate an object per link.
+ */
+@FunctionalInterface
+public interface LinkConsumer {
+
+    /**
+     * @param type the type of link
+     * @param beginIndex begin index (inclusive) in the input that the link starts at
+     * @param endIndex end index (exclusive) in the input that the link ends at
+     */
+    void accept(LinkType type, int beginIndex, int endIndex);
+
+}
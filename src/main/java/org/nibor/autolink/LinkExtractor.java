@@ -1,9 +1,24 @@
 package org.nibor.autolink;
 
 import org.nibor.autolink.internal.*;
-import org.nibor.autolink.internal.Scanner;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Extracts links from input.
@@ -12,14 +27,18 @@ import java.util.*;
  */
 public class LinkExtractor {
 
-    private final Scanner urlScanner;
-    private final Scanner wwwScanner;
-    private final Scanner emailScanner;
+    private static final int STREAM_BUFFER_SIZE = 8192;
+    private static final int PIPELINE_BUFFER_SIZE = 64 * 1024;
+    private static final int PIPELINE_BUFFER_COUNT = 4;
+    private static final int TAIL_BUFFER_SIZE = 64 * 1024;
+    private static final int FILE_WINDOW_SIZE = 64 * 1024 * 1024;
+    private static final int PARALLEL_MIN_CHUNK_SIZE = 64 * 1024;
+    private static final int CANCELLATION_CHECK_INTERVAL = 4096;
 
-    private LinkExtractor(UrlScanner urlScanner, WwwScanner wwwScanner, EmailScanner emailScanner) {
-        this.urlScanner = urlScanner;
-        this.wwwScanner = wwwScanner;
-        this.emailScanner = emailScanner;
+    private final LinkFinder linkFinder;
+
+    private LinkExtractor(LinkFinder linkFinder) {
+        this.linkFinder = linkFinder;
     }
 
     public static Builder builder() {
@@ -42,9 +61,136 @@ public class LinkExtractor {
             public Iterator<LinkSpan> iterator() {
                 return new LinkIterator(input);
             }
+
+            @Override
+            public Spliterator<LinkSpan> spliterator() {
+                return linkSpliterator(input);
+            }
         };
     }
 
+    /**
+     * Extract the links from the input text as a stream. The stream can be made parallel, in which case the input is
+     * split into parts that are scanned concurrently, with the same result as sequential extraction:
+     * <pre><code>
+     * List&lt;LinkSpan&gt; urls = linkExtractor.streamLinks(input)
+     *         .parallel()
+     *         .filter(link -&gt; link.getType() == LinkType.URL)
+     *         .collect(Collectors.toList());
+     * </code></pre>
+     * The parts are split after whitespace (or similar characters that no link can contain), so a parallel stream is
+     * only worth it for large inputs (the parts are at least 32K characters).
+     *
+     * @param input the input text, must not be null; must not be modified while the stream is used
+     * @return a sequential stream of the links in order that they appear in the input, never null
+     */
+    public Stream<LinkSpan> streamLinks(CharSequence input) {
+        if (input == null) {
+            throw new NullPointerException("input must not be null");
+        }
+        return StreamSupport.stream(linkSpliterator(input), false);
+    }
+
+    /**
+     * Extract the links from a range of a char array, see {@link #extractLinks(CharSequence)}. The array is scanned in
+     * place without copying it.
+     *
+     * @param input the input text, must not be null
+     * @param offset the offset of the input in the array
+     * @param length the length of the input
+     * @return a lazy iterable for the links in order that they appear in the input, with indexes relative to
+     * {@code offset}, never null
+     */
+    public Iterable<LinkSpan> extractLinks(char[] input, int offset, int length) {
+        if (input == null) {
+            throw new NullPointerException("input must not be null");
+        }
+        Objects.checkFromIndexSize(offset, length, input.length);
+        return extractLinks(new CharArraySequence(input, offset, length));
+    }
+
+    /**
+     * Extract the first links from the input text, stopping after {@code limit} links.
+     *
+     * @param input the input text, must not be null
+     * @param limit the maximum number of links to extract, must not be negative
+     * @return the first links in order that they appear in the input, never null
+     */
+    public List<LinkSpan> extractLinks(CharSequence input, int limit) {
+        if (input == null) {
+            throw new NullPointerException("input must not be null");
+        }
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit must not be negative");
+        }
+        CharSequence text = CharArraySequence.of(input);
+        int length = text.length();
+        List<LinkSpan> links = new ArrayList<>();
+        int index = 0;
+        long link;
+        while (links.size() < limit && (link = linkFinder.find(text, index, length, index)) != PackedLink.NONE) {
+            index = PackedLink.endIndex(link);
+            links.add(new LinkSpanImpl(PackedLink.type(link), PackedLink.beginIndex(link), index));
+        }
+        return links;
+    }
+
+    /**
+     * Find the first link in the input text. This stops scanning as soon as a link is found.
+     *
+     * @param input the input text, must not be null
+     * @return the first link in the input, or null if there's none
+     */
+    public LinkSpan firstLink(CharSequence input) {
+        if (input == null) {
+            throw new NullPointerException("input must not be null");
+        }
+        CharSequence text = CharArraySequence.of(input);
+        long link = linkFinder.find(text, 0, text.length(), 0);
+        if (link == PackedLink.NONE) {
+            return null;
+        }
+        return new LinkSpanImpl(PackedLink.type(link), PackedLink.beginIndex(link), PackedLink.endIndex(link));
+    }
+
+    /**
+     * Check whether the input text contains any link. This stops scanning as soon as a link is found and doesn't
+     * allocate for {@link String} input.
+     *
+     * @param input the input text, must not be null
+     * @return true if the input contains at least one link
+     */
+    public boolean containsLink(CharSequence input) {
+        if (input == null) {
+            throw new NullPointerException("input must not be null");
+        }
+        CharSequence text = CharArraySequence.of(input);
+        return linkFinder.find(text, 0, text.length(), 0) != PackedLink.NONE;
+    }
+
+    /**
+     * Count the links in the input text, without creating objects for them. Doesn't allocate for {@link String}
+     * input.
+     *
+     * @param input the input text, must not be null
+     * @return the number of links in the input
+     */
+    public int countLinks(CharSequence input) {
+        if (input == null) {
+            throw new NullPointerException("input must not be null");
+        }
+        CharSequence text = CharArraySequence.of(input);
+        int length = text.length();
+        int count = 0;
+        int index = 0;
+        long link;
+        while ((link = linkFinder.find(text, index, length, index)) != PackedLink.NONE) {
+            index = PackedLink.endIndex(link);
+            count++;
+        }
+        return count;
+    }
+
     /**
      * Extract spans from the input text. A span is a substring of the input and represents either a link
      * (see {@link LinkSpan}) or plain text outside a link.
@@ -67,16 +213,750 @@ public class LinkExtractor {
         };
     }
 
-    private Scanner trigger(char c) {
-        switch (c) {
-            case ':':
-                return urlScanner;
-            case '@':
-                return emailScanner;
-            case 'w':
-                return wwwScanner;
+    /**
+     * Extract the links from the input text and pass them to the consumer. Unlike {@link #extractLinks(CharSequence)},
+     * this doesn't allocate any objects for {@link String} input, which makes it suitable for hot paths.
+     * <p>
+     * Like all methods taking a {@link CharSequence}, this is fastest for {@link String}, {@link java.nio.CharBuffer}
+     * backed by an array and {@link #extractLinks(char[], int, int, LinkConsumer) char arrays}. A
+     * {@link StringBuilder} or {@link StringBuffer} is copied first, other types are read using
+     * {@link CharSequence#charAt} which is slower.
+     *
+     * @param input the input text, must not be null
+     * @param consumer the consumer that is called for each link in order that they appear in the input, must not be
+     * null
+     */
+    public void extractLinks(CharSequence input, LinkConsumer consumer) {
+        if (input == null) {
+            throw new NullPointerException("input must not be null");
+        }
+        if (consumer == null) {
+            throw new NullPointerException("consumer must not be null");
+        }
+        find(CharArraySequence.of(input), consumer);
+    }
+
+    /**
+     * Extract the links from a range of a char array and pass them to the consumer, see
+     * {@link #extractLinks(CharSequence, LinkConsumer)}. The array is scanned in place without copying it.
+     *
+     * @param input the input text, must not be null
+     * @param offset the offset of the input in the array
+     * @param length the length of the input
+     * @param consumer the consumer that is called for each link in order that they appear in the input, with indexes
+     * relative to {@code offset}, must not be null
+     */
+    public void extractLinks(char[] input, int offset, int length, LinkConsumer consumer) {
+        if (input == null) {
+            throw new NullPointerException("input must not be null");
+        }
+        if (consumer == null) {
+            throw new NullPointerException("consumer must not be null");
+        }
+        Objects.checkFromIndexSize(offset, length, input.length);
+        find(new CharArraySequence(input, offset, length), consumer);
+    }
+
+    /**
+     * Extract spans from the input text and pass them to the consumer, see {@link #extractSpans(CharSequence)}. Like
+     * {@link #extractLinks(CharSequence, LinkConsumer)}, this doesn't allocate any objects.
+     *
+     * @param input the input text, must not be null
+     * @param consumer the consumer that is called for each span in order that they appear in the input, must not be
+     * null
+     */
+    public void extractSpans(CharSequence input, SpanConsumer consumer) {
+        if (input == null) {
+            throw new NullPointerException("input must not be null");
+        }
+        if (consumer == null) {
+            throw new NullPointerException("consumer must not be null");
+        }
+        CharSequence text = CharArraySequence.of(input);
+        int length = text.length();
+        int index = 0;
+        long link;
+        while ((link = linkFinder.find(text, index, length, index)) != PackedLink.NONE) {
+            int beginIndex = PackedLink.beginIndex(link);
+            if (index < beginIndex) {
+                consumer.acceptText(index, beginIndex);
+            }
+            index = PackedLink.endIndex(link);
+            consumer.accept(PackedLink.type(link), beginIndex, index);
+        }
+        if (index < length) {
+            consumer.acceptText(index, length);
+        }
+    }
+
+    /**
+     * Extract the links from the input text and pass them to the consumer, like
+     * {@link #extractLinks(CharSequence, LinkConsumer)}, but stop early when cancelled. This is useful for bounding the
+     * time spent on extraction, e.g. with a deadline:
+     * <pre><code>
+     * long deadline = System.nanoTime() + timeoutNanos;
+     * int end = linkExtractor.extractLinks(input, consumer, () -&gt; System.nanoTime() - deadline &gt;= 0);
+     * if (end &lt; input.length()) {
+     *     // Treat the rest of the input from end as plain text
+     * }
+     * </code></pre>
+     * Cancellation is checked about every 4096 characters, at positions where the input can be split without affecting
+     * links (after whitespace and similar characters). Text without any such characters can't be split like that, so
+     * in a long run of it, cancellation is checked while scanning instead. When cancelled there, the returned index is
+     * at the end of the last link found in the run (or at its start if there's none).
+     *
+     * @param input the input text, must not be null
+     * @param consumer the consumer that is called for each link in order that they appear in the input, must not be
+     * null
+     * @param cancelled checked regularly, extraction stops when it returns true; must not be null
+     * @return the index up to which the input was processed: all links before it were passed to the consumer, and no
+     * link extends past it; the length of the input if extraction wasn't cancelled
+     */
+    public int extractLinks(CharSequence input, LinkConsumer consumer, BooleanSupplier cancelled) {
+        if (input == null) {
+            throw new NullPointerException("input must not be null");
+        }
+        if (consumer == null) {
+            throw new NullPointerException("consumer must not be null");
+        }
+        if (cancelled == null) {
+            throw new NullPointerException("cancelled must not be null");
+        }
+        return new CancellableExtractor(linkFinder, CANCELLATION_CHECK_INTERVAL)
+                .extract(CharArraySequence.of(input), consumer, cancelled);
+    }
+
+    /**
+     * Extract spans from the input text and pass them to the consumer, but stop early when cancelled, see
+     * {@link #extractLinks(CharSequence, LinkConsumer, BooleanSupplier)}. When cancelled, the spans passed to the
+     * consumer end at the returned index.
+     *
+     * @param input the input text, must not be null
+     * @param consumer the consumer that is called for each span in order that they appear in the input, must not be
+     * null
+     * @param cancelled checked regularly, extraction stops when it returns true; must not be null
+     * @return the index up to which the input was processed, the length of the input if extraction wasn't cancelled
+     */
+    public int extractSpans(CharSequence input, SpanConsumer consumer, BooleanSupplier cancelled) {
+        if (consumer == null) {
+            throw new NullPointerException("consumer must not be null");
+        }
+        int[] textIndex = {0};
+        int end = extractLinks(input, (type, beginIndex, endIndex) -> {
+            if (textIndex[0] < beginIndex) {
+                consumer.acceptText(textIndex[0], beginIndex);
+            }
+            consumer.accept(type, beginIndex, endIndex);
+            textIndex[0] = endIndex;
+        }, cancelled);
+        if (textIndex[0] < end) {
+            consumer.acceptText(textIndex[0], end);
+        }
+        return end;
+    }
+
+    /**
+     * Create a matcher for finding the links in the input one at a time. The matcher can be reused for other inputs,
+     * see {@link LinkMatcher#reset(CharSequence)}.
+     *
+     * @param input the input text, must not be null
+     * @return a new matcher for the input, not thread-safe
+     */
+    public LinkMatcher matcher(CharSequence input) {
+        return new LinkMatcher(linkFinder, input);
+    }
+
+    /**
+     * Rewrite the links in the input text, e.g. to click-tracking or shortened URLs. The text between links is kept
+     * as is, each link is replaced with what the replacer writes for it:
+     * <pre><code>
+     * String rewritten = linkExtractor.rewriteLinks(input, (text, type, beginIndex, endIndex, output) -&gt; {
+     *     output.append("https://example.org/track?to=").append(text, beginIndex, endIndex);
+     * });
+     * </code></pre>
+     *
+     * @param input the input text, must not be null
+     * @param replacer called for each link in order that they appear in the input, must not be null
+     * @return the rewritten text, or the input as a string if it doesn't contain any links
+     * @throws UncheckedIOException if the replacer throws an {@link IOException}
+     */
+    public String rewriteLinks(CharSequence input, LinkReplacer replacer) {
+        if (input == null) {
+            throw new NullPointerException("input must not be null");
+        }
+        if (replacer == null) {
+            throw new NullPointerException("replacer must not be null");
+        }
+        CharSequence text = CharArraySequence.of(input);
+        long link = linkFinder.find(text, 0, text.length(), 0);
+        if (link == PackedLink.NONE) {
+            return input.toString();
+        }
+        StringBuilder sb = new StringBuilder(estimateRewrittenLength(input.length()));
+        try {
+            rewrite(input, text, link, replacer, sb);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Rewrite the links in the input text and append the result to the output, see
+     * {@link #rewriteLinks(CharSequence, LinkReplacer)}. The text between links is appended directly from the input,
+     * without creating intermediate strings.
+     *
+     * @param input the input text, must not be null
+     * @param replacer called for each link in order that they appear in the input, must not be null
+     * @param output the output to append the rewritten text to, must not be null
+     * @throws IOException if appending to the output fails
+     */
+    public void rewriteLinks(CharSequence input, LinkReplacer replacer, Appendable output) throws IOException {
+        if (input == null) {
+            throw new NullPointerException("input must not be null");
+        }
+        if (replacer == null) {
+            throw new NullPointerException("replacer must not be null");
+        }
+        if (output == null) {
+            throw new NullPointerException("output must not be null");
+        }
+        if (output instanceof StringBuilder) {
+            StringBuilder sb = (StringBuilder) output;
+            sb.ensureCapacity(sb.length() + estimateRewrittenLength(input.length()));
+        }
+        CharSequence text = CharArraySequence.of(input);
+        rewrite(input, text, linkFinder.find(text, 0, text.length(), 0), replacer, output);
+    }
+
+    /**
+     * Rewrite the links in the builder and replace its content with the result, see
+     * {@link #rewriteLinks(CharSequence, LinkReplacer)}. This is not an in-place edit: the whole content is copied first
+     * (scanning a builder needs a copy anyway), and the builder is then refilled from the copy, starting at the first
+     * link. So the builder's storage is reused for the result instead of allocating a separate output. The replacer is
+     * passed the copy of the original text as the input, and the builder as the output.
+     *
+     * @param input the input text to rewrite, must not be null
+     * @param replacer called for each link in order that they appear in the input, must not be null
+     * @throws UncheckedIOException if the replacer throws an {@link IOException}
+     */
+    public void rewriteLinksInBuilder(StringBuilder input, LinkReplacer replacer) {
+        if (input == null) {
+            throw new NullPointerException("input must not be null");
         }
-        return null;
+        if (replacer == null) {
+            throw new NullPointerException("replacer must not be null");
+        }
+        // Scanning a StringBuilder needs a copy anyway (see CharArraySequence.of), which is then also used as the
+        // source for writing the result back into the builder
+        int length = input.length();
+        char[] chars = new char[length];
+        input.getChars(0, length, chars, 0);
+        CharArraySequence text = new CharArraySequence(chars, 0, length);
+        long link = linkFinder.find(text, 0, length, 0);
+        if (link == PackedLink.NONE) {
+            return;
+        }
+        int index = PackedLink.beginIndex(link);
+        input.setLength(index);
+        input.ensureCapacity(estimateRewrittenLength(length));
+        try {
+            while (link != PackedLink.NONE) {
+                int beginIndex = PackedLink.beginIndex(link);
+                int endIndex = PackedLink.endIndex(link);
+                input.append(chars, index, beginIndex - index);
+                replacer.replace(text, PackedLink.type(link), beginIndex, endIndex, input);
+                index = endIndex;
+                link = linkFinder.find(text, index, length, index);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        input.append(chars, index, length - index);
+    }
+
+    /**
+     * Create a processor for extracting links from text that arrives in chunks, for use with
+     * {@link java.util.concurrent.Flow} based pipelines, see {@link LinkProcessor}.
+     *
+     * @return a new processor for one text
+     */
+    public LinkProcessor processor() {
+        return new LinkProcessor(this, STREAM_BUFFER_SIZE);
+    }
+
+    /**
+     * Extract the links from the input text in parallel. The input is split into chunks which are scanned
+     * concurrently using the executor, e.g. a {@link java.util.concurrent.ForkJoinPool}. The result is the same as
+     * with {@link #extractLinks(CharSequence)}. This is only worth it for large inputs, small inputs are scanned
+     * directly.
+     * <p>
+     * The input is read from multiple threads, so it must not be modified during extraction.
+     *
+     * @param input the input text, must not be null
+     * @param executor the executor to run the scanning of chunks with, must not be null
+     * @return the links in order that they appear in the input, never null
+     */
+    public List<LinkSpan> extractLinks(CharSequence input, Executor executor) {
+        if (input == null) {
+            throw new NullPointerException("input must not be null");
+        }
+        if (executor == null) {
+            throw new NullPointerException("executor must not be null");
+        }
+        int parallelism = Runtime.getRuntime().availableProcessors() * 4;
+        int chunkSize = Math.max(PARALLEL_MIN_CHUNK_SIZE, input.length() / parallelism);
+        return new ParallelExtractor(linkFinder, chunkSize).extract(CharArraySequence.of(input), executor);
+    }
+
+    /**
+     * Update the links of a text after an edit, without extracting the links of the whole text again. This is useful
+     * for editors, where a large text is changed a bit at a time:
+     * <pre><code>
+     * List&lt;LinkSpan&gt; links = linkExtractor.extractLinks(text, Integer.MAX_VALUE);
+     * // Replace 3 characters at offset 100 with "foo"
+     * text.replace(100, 103, "foo");
+     * links = linkExtractor.updateLinks(text, links, 100, 3, 3);
+     * </code></pre>
+     * Only the region around the edit is scanned again. It extends from the last whitespace (or similar character
+     * that no link can contain, like {@code <} or {@code "}) before the edit to the first one after it, because a link
+     * can start before an edit (e.g. the local part of an email address) and end after it. The links outside of that
+     * region are kept, with the ones after it moved by the change in length. The result is the same as extracting the
+     * links of the whole edited text.
+     * <p>
+     * Unlike the other methods, the input is not copied first if it's a {@link StringBuilder}, as only a small part
+     * of it is read.
+     *
+     * @param input the text after the edit, must not be null
+     * @param previousLinks the links of the text before the edit, as extracted (or updated) by this extractor; must
+     * not be null
+     * @param offset the index in the text that the edit starts at
+     * @param removedLength the number of characters that were removed at the offset
+     * @param insertedLength the number of characters that were inserted at the offset
+     * @return the links of the text after the edit, in order that they appear in it, never null
+     */
+    public List<LinkSpan> updateLinks(CharSequence input, List<? extends LinkSpan> previousLinks, int offset,
+                                      int removedLength, int insertedLength) {
+        if (input == null) {
+            throw new NullPointerException("input must not be null");
+        }
+        if (previousLinks == null) {
+            throw new NullPointerException("previousLinks must not be null");
+        }
+        if (removedLength < 0) {
+            throw new IllegalArgumentException("removedLength must not be negative");
+        }
+        Objects.checkFromIndexSize(offset, insertedLength, input.length());
+        return new IncrementalExtractor(linkFinder).update(input, previousLinks, offset, removedLength, insertedLength);
+    }
+
+    /**
+     * Extract the links from text that is stored as a list of segments (e.g. the nodes of a rope or the decoded parts
+     * of a message), without concatenating them first. The result is the same as for the concatenated text,
+     * including links that span multiple segments.
+     *
+     * @param segments the segments of the input text in order, must not be null or contain null
+     * @return the links in order that they appear in the text, with indexes in the concatenated text, never null
+     */
+    public List<LinkSpan> extractLinksFromSegments(List<? extends CharSequence> segments) {
+        List<LinkSpan> links = new ArrayList<>();
+        extractLinksFromSegments(segments,
+                (type, beginIndex, endIndex) -> links.add(new LinkSpanImpl(type, beginIndex, endIndex)));
+        return links;
+    }
+
+    /**
+     * Extract the links from text that is stored as a list of segments and pass them to the consumer, see
+     * {@link #extractLinksFromSegments(List)}. Most of the text is scanned in place, only the text around the joins
+     * of segments (from the last whitespace before to the first whitespace after a join) is copied.
+     *
+     * @param segments the segments of the input text in order, must not be null or contain null
+     * @param consumer the consumer that is called for each link in order that they appear in the text, with indexes
+     * in the concatenated text, must not be null
+     * @throws IllegalArgumentException if the total length of the segments exceeds {@link Integer#MAX_VALUE}
+     */
+    public void extractLinksFromSegments(List<? extends CharSequence> segments, LinkConsumer consumer) {
+        if (segments == null) {
+            throw new NullPointerException("segments must not be null");
+        }
+        if (consumer == null) {
+            throw new NullPointerException("consumer must not be null");
+        }
+        long totalLength = 0;
+        for (CharSequence segment : segments) {
+            if (segment == null) {
+                throw new NullPointerException("segments must not contain null");
+            }
+            totalLength += segment.length();
+        }
+        if (totalLength > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("total length of segments must not exceed Integer.MAX_VALUE");
+        }
+        new SegmentedExtractor(linkFinder).extract(segments, consumer);
+    }
+
+    /**
+     * Extract the links from a batch of documents, e.g. many short messages, and add them to the batch. Compared to
+     * calling {@link #extractLinks(CharSequence)} for each document, this doesn't create any objects per document or
+     * link, which matters when the documents are small.
+     *
+     * @param documents the documents, must not be null or contain null
+     * @param batch the batch to add the documents and their links to, with indexes relative to each document; must
+     * not be null
+     */
+    public void extractBatch(List<? extends CharSequence> documents, LinkBatch batch) {
+        if (documents == null) {
+            throw new NullPointerException("documents must not be null");
+        }
+        if (batch == null) {
+            throw new NullPointerException("batch must not be null");
+        }
+        for (CharSequence document : documents) {
+            if (document == null) {
+                throw new NullPointerException("documents must not contain null");
+            }
+        }
+        for (CharSequence document : documents) {
+            find(CharArraySequence.of(document), batch);
+            batch.endDocument();
+        }
+    }
+
+    /**
+     * Extract the links from a batch of documents concurrently using the executor, and pass the results to the
+     * consumer in the order of the documents. The documents are split into groups of about 64K characters, the links
+     * of each group are extracted into a {@link LinkBatch} by a task run on the executor. Any executor can be used,
+     * e.g. a fixed thread pool, a {@link java.util.concurrent.ForkJoinPool} or one that runs each task in a virtual
+     * thread (Java 21 and later).
+     * <p>
+     * The consumer is called on the calling thread, with the batch of a group and the index of its first document:
+     * <pre><code>
+     * linkExtractor.extractBatch(documents, executor, (batch, firstDocument) -&gt; {
+     *     for (int document = 0; document &lt; batch.documentCount(); document++) {
+     *         CharSequence text = documents.get(firstDocument + document);
+     *         // Handle links from batch.linkStart(document) to batch.linkEnd(document)
+     *     }
+     * });
+     * </code></pre>
+     * The batch is reused for a later group after the consumer returns, so it must not be kept. Only a limited number
+     * of groups are extracted ahead of the consumer, so if it's slow, extraction waits for it.
+     * <p>
+     * The documents are read from multiple threads, so they must not be modified during extraction.
+     *
+     * @param documents the documents, must not be null or contain null
+     * @param executor the executor to run the extraction tasks with, must not be null
+     * @param consumer called with the batch of each group of documents and the index of its first document, in the
+     * order of the documents; must not be null
+     */
+    public void extractBatch(List<? extends CharSequence> documents, Executor executor,
+                             ObjIntConsumer<? super LinkBatch> consumer) {
+        if (documents == null) {
+            throw new NullPointerException("documents must not be null");
+        }
+        if (executor == null) {
+            throw new NullPointerException("executor must not be null");
+        }
+        if (consumer == null) {
+            throw new NullPointerException("consumer must not be null");
+        }
+        for (CharSequence document : documents) {
+            if (document == null) {
+                throw new NullPointerException("documents must not contain null");
+            }
+        }
+        int maxPending = Math.max(2, Runtime.getRuntime().availableProcessors() * 4);
+        OrderedBatchRunner<LinkBatch> runner = new OrderedBatchRunner<>(executor, maxPending, LinkBatch::new);
+        int size = documents.size();
+        int groupBegin = 0;
+        long groupLength = 0;
+        int index = 0;
+        for (CharSequence document : documents) {
+            index++;
+            groupLength += document.length();
+            if (groupLength >= PARALLEL_MIN_CHUNK_SIZE || index == size) {
+                final List<? extends CharSequence> group = documents.subList(groupBegin, index);
+                final int firstDocument = groupBegin;
+                runner.submit(batch -> {
+                    batch.clear();
+                    extractBatch(group, batch);
+                }, batch -> consumer.accept(batch, firstDocument));
+                groupBegin = index;
+                groupLength = 0;
+            }
+        }
+        runner.finish();
+    }
+
+    /**
+     * Extract the links from a batch of documents that are stored one after another in one input, and add them to the
+     * batch. Links never extend from one document into the next, even if there's no whitespace between them.
+     *
+     * @param input the input containing the documents, must not be null
+     * @param documentEnds the end index (exclusive) of each document in the input, in ascending order; the first
+     * document starts at 0, each following one at the end of the previous one; must not be null
+     * @param batch the batch to add the documents and their links to, with indexes in the input; must not be null
+     * @throws IllegalArgumentException if the end indexes are not in ascending order
+     * @throws IndexOutOfBoundsException if an end index is negative or greater than the length of the input
+     */
+    public void extractBatch(CharSequence input, int[] documentEnds, LinkBatch batch) {
+        if (input == null) {
+            throw new NullPointerException("input must not be null");
+        }
+        if (documentEnds == null) {
+            throw new NullPointerException("documentEnds must not be null");
+        }
+        if (batch == null) {
+            throw new NullPointerException("batch must not be null");
+        }
+        int previousEnd = 0;
+        for (int end : documentEnds) {
+            Objects.checkIndex(end, input.length() + 1);
+            if (end < previousEnd) {
+                throw new IllegalArgumentException("documentEnds must be in ascending order");
+            }
+            previousEnd = end;
+        }
+
+        CharSequence text = CharArraySequence.of(input);
+        int length = text.length();
+        char[] tail = new char[64];
+        CharArraySequence tailView = new CharArraySequence(tail, 0, 0);
+        int documentBegin = 0;
+        for (int documentEnd : documentEnds) {
+            // Scanners don't read across boundary characters, so the document can be scanned in place up to its last
+            // one. The rest is copied and scanned on its own, so that the scanners don't look into the next document.
+            int split = documentEnd == length ? documentEnd : lastBoundaryEnd(text, documentBegin, documentEnd);
+            findRange(text, documentBegin, split, 0, batch);
+            if (split < documentEnd) {
+                int tailLength = documentEnd - split;
+                if (tailLength > tail.length) {
+                    tail = new char[Math.max(tailLength, tail.length * 2)];
+                }
+                for (int i = 0; i < tailLength; i++) {
+                    tail[i] = text.charAt(split + i);
+                }
+                findRange(tailView.reset(tail, 0, tailLength), 0, tailLength, split, batch);
+            }
+            batch.endDocument();
+            documentBegin = documentEnd;
+        }
+    }
+
+    /**
+     * Extract the links from UTF-8 encoded input without decoding it to a string first. The result is the same as
+     * decoding the input and calling {@link #extractLinks(CharSequence)}, except that the indexes of the spans are
+     * byte offsets (see {@link Autolink#toUtf16(byte[], int, int, Iterable)} for converting them).
+     *
+     * @param utf8 the UTF-8 encoded input text, must not be null
+     * @param offset the offset of the input in the array
+     * @param length the length of the input in bytes
+     * @return a lazy iterable for the links in order that they appear in the input, with indexes relative to
+     * {@code offset}, never null
+     */
+    public Iterable<LinkSpan> extractUtf8Links(byte[] utf8, int offset, int length) {
+        if (utf8 == null) {
+            throw new NullPointerException("utf8 must not be null");
+        }
+        Objects.checkFromIndexSize(offset, length, utf8.length);
+        return extractLinks(new Utf8CharSequence(utf8, offset, length));
+    }
+
+    /**
+     * Extract the links from UTF-8 encoded input in the buffer from its position to its limit, see
+     * {@link #extractUtf8Links(byte[], int, int)}. The position of the buffer is not changed.
+     *
+     * @param utf8 the UTF-8 encoded input text, must not be null
+     * @return a lazy iterable for the links in order that they appear in the input, with indexes relative to the
+     * position of the buffer, never null
+     */
+    public Iterable<LinkSpan> extractUtf8Links(ByteBuffer utf8) {
+        if (utf8 == null) {
+            throw new NullPointerException("utf8 must not be null");
+        }
+        return extractLinks(new Utf8CharSequence(utf8));
+    }
+
+    /**
+     * Extract the links from the text read from the reader. The input is read and scanned in chunks, so it doesn't
+     * need to fit into memory. Links that span chunks are found the same as with {@link #extractLinks(CharSequence)}.
+     * <p>
+     * The memory used is bounded by the size of the internal buffer, unless the input contains very long runs of text
+     * without any whitespace, in which case the buffer grows to fit such a run. The reader is not closed.
+     *
+     * @param reader the reader to read the input text from, must not be null
+     * @param consumer the consumer that is called for each link in order that they appear in the input, offsets are
+     * in characters from the start of the input
+     * @throws IOException if reading fails
+     */
+    public void extractLinks(Reader reader, Consumer<? super ExtractedLink> consumer) throws IOException {
+        if (reader == null) {
+            throw new NullPointerException("reader must not be null");
+        }
+        if (consumer == null) {
+            throw new NullPointerException("consumer must not be null");
+        }
+        new StreamExtractor(this, STREAM_BUFFER_SIZE, consumer).read(reader);
+    }
+
+    /**
+     * Extract the links from the text read from the reader, with reading and scanning done concurrently. This is
+     * useful when reading is expensive, e.g. for compressed input:
+     * <pre><code>
+     * Reader reader = new InputStreamReader(new GZIPInputStream(in), StandardCharsets.UTF_8);
+     * linkExtractor.extractLinks(reader, executor, link -&gt; ...);
+     * </code></pre>
+     * Reading happens in a task on the executor, while the text read so far is scanned on the calling thread (which
+     * also calls the consumer). The two hand over a small fixed number of buffers, so the memory used doesn't depend
+     * on the input size, and reading waits when scanning can't keep up. The result is the same as with
+     * {@link #extractLinks(Reader, Consumer)}.
+     * <p>
+     * The executor must run the task on a different thread than the calling one. The reader is not closed, but it's
+     * not used anymore when this method returns.
+     *
+     * @param reader the reader to read the input text from, must not be null
+     * @param executor the executor for reading, must not be null
+     * @param consumer the consumer that is called for each link in order that they appear in the input, offsets are
+     * in characters from the start of the input
+     * @throws IOException if reading fails or the calling thread is interrupted while waiting for input
+     */
+    public void extractLinks(Reader reader, Executor executor, Consumer<? super ExtractedLink> consumer)
+            throws IOException {
+        if (reader == null) {
+            throw new NullPointerException("reader must not be null");
+        }
+        if (executor == null) {
+            throw new NullPointerException("executor must not be null");
+        }
+        if (consumer == null) {
+            throw new NullPointerException("consumer must not be null");
+        }
+        new PipelinedExtractor(this, PIPELINE_BUFFER_SIZE, PIPELINE_BUFFER_COUNT).extract(reader, executor, consumer);
+    }
+
+    /**
+     * Extract the links from the text read from the channel, see {@link #extractLinks(Reader, Consumer)}. Malformed
+     * input is replaced with the charset's default replacement. The channel is not closed.
+     *
+     * @param channel the channel to read the input from, must not be null
+     * @param charset the charset to decode the input with, must not be null
+     * @param consumer the consumer that is called for each link in order that they appear in the input, offsets are
+     * in characters from the start of the decoded input
+     * @throws IOException if reading fails
+     */
+    public void extractLinks(ReadableByteChannel channel, Charset charset, Consumer<? super ExtractedLink> consumer)
+            throws IOException {
+        if (channel == null) {
+            throw new NullPointerException("channel must not be null");
+        }
+        if (charset == null) {
+            throw new NullPointerException("charset must not be null");
+        }
+        extractLinks(Channels.newReader(channel, charset), consumer);
+    }
+
+    /**
+     * Extract the links from a UTF-8 encoded file. The file is memory-mapped in windows and scanned in place without
+     * decoding or copying it to the heap, so this works for files of any size. The result is the same as for
+     * {@link #extractUtf8Links(ByteBuffer)} with the whole file, including for links that span windows.
+     *
+     * @param file the path of the file to extract links from, must not be null
+     * @param consumer the consumer that is called for each link in order that they appear in the file, offsets are
+     * in bytes from the start of the file
+     * @throws IOException if reading the file fails
+     */
+    public void extractLinks(Path file, Consumer<? super ExtractedLink> consumer) throws IOException {
+        if (file == null) {
+            throw new NullPointerException("file must not be null");
+        }
+        if (consumer == null) {
+            throw new NullPointerException("consumer must not be null");
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            new FileExtractor(this, FILE_WINDOW_SIZE).extract(channel, consumer);
+        }
+    }
+
+    /**
+     * Create a tailer for extracting links from a UTF-8 encoded file that is being appended to, such as a log file.
+     * See {@link LinkTailer} for details.
+     *
+     * @param file the file to extract links from, must not be null; doesn't need to exist yet
+     * @param checkpointFile the file to save the position in the file to, must not be null; if it exists, the tailer
+     * resumes from the position saved in it
+     * @return a new tailer
+     * @throws IOException if reading the checkpoint file fails or it is invalid
+     */
+    public LinkTailer tailer(Path file, Path checkpointFile) throws IOException {
+        if (file == null) {
+            throw new NullPointerException("file must not be null");
+        }
+        if (checkpointFile == null) {
+            throw new NullPointerException("checkpointFile must not be null");
+        }
+        return new LinkTailer(this, file, checkpointFile, TAIL_BUFFER_SIZE);
+    }
+
+    private void find(CharSequence input, LinkConsumer consumer) {
+        int length = input.length();
+        int index = 0;
+        long link;
+        while ((link = linkFinder.find(input, index, length, index)) != PackedLink.NONE) {
+            index = PackedLink.endIndex(link);
+            consumer.accept(PackedLink.type(link), PackedLink.beginIndex(link), index);
+        }
+    }
+
+    private Spliterator<LinkSpan> linkSpliterator(CharSequence input) {
+        CharSequence text = CharArraySequence.of(input);
+        return new LinkSpliterator(linkFinder, text, 0, text.length(), PARALLEL_MIN_CHUNK_SIZE);
+    }
+
+    private void findRange(CharSequence input, int beginIndex, int endIndex, int offset, LinkConsumer consumer) {
+        int index = beginIndex;
+        long link;
+        while ((link = linkFinder.find(input, index, endIndex, index)) != PackedLink.NONE) {
+            index = PackedLink.endIndex(link);
+            consumer.accept(PackedLink.type(link), offset + PackedLink.beginIndex(link), offset + index);
+        }
+    }
+
+    // Index after the last boundary character in the range, or beginIndex if there's none
+    private static int lastBoundaryEnd(CharSequence input, int beginIndex, int endIndex) {
+        for (int i = endIndex - 1; i >= beginIndex; i--) {
+            if (Scanners.isBoundary(input.charAt(i))) {
+                return i + 1;
+            }
+        }
+        return beginIndex;
+    }
+
+    /**
+     * @param input the input passed to the replacer and appended from
+     * @param text the input to scan, see {@link CharArraySequence#of}
+     * @param firstLink the first link in the input, or {@link PackedLink#NONE}
+     */
+    private void rewrite(CharSequence input, CharSequence text, long firstLink, LinkReplacer replacer,
+                         Appendable output) throws IOException {
+        int length = text.length();
+        int index = 0;
+        long link = firstLink;
+        while (link != PackedLink.NONE) {
+            int beginIndex = PackedLink.beginIndex(link);
+            int endIndex = PackedLink.endIndex(link);
+            output.append(input, index, beginIndex);
+            replacer.replace(input, PackedLink.type(link), beginIndex, endIndex, output);
+            index = endIndex;
+            link = linkFinder.find(text, index, length, index);
+        }
+        output.append(input, index, length);
+    }
+
+    /**
+     * A cheap estimate of the length of rewritten text, with some room for replacements that are longer than the
+     * links, to avoid having to grow the output repeatedly.
+     */
+    private static int estimateRewrittenLength(int inputLength) {
+        return (int) Math.min((long) inputLength + (inputLength >> 3) + 16, Integer.MAX_VALUE - 8);
     }
 
     /**
@@ -86,6 +966,9 @@ public class LinkExtractor {
 
         private Set<LinkType> linkTypes = EnumSet.allOf(LinkType.class);
         private boolean emailDomainMustHaveDot = true;
+        private int maxLinkLength = Integer.MAX_VALUE;
+        private int maxLookbehind = Integer.MAX_VALUE;
+        private boolean forwardOnly = false;
 
         private Builder() {
         }
@@ -123,14 +1006,76 @@ public class LinkExtractor {
             return this;
         }
 
+        /**
+         * Limit the length of links that are extracted, e.g. when they are stored with a maximum length. By default,
+         * there's no limit.
+         * <p>
+         * Links that would be longer are not extracted (they are not truncated, as that would result in a different
+         * link). Scanning continues after the end of such a link, so the other links are the same as without a limit,
+         * and no links are extracted from parts of the long one. Extraction is linear in the length of the input either
+         * way. For UTF-8 input (see {@link LinkExtractor#extractUtf8Links(byte[], int, int)}), the length is counted
+         * in the chars that the link decodes to, not in bytes.
+         *
+         * @param maxLinkLength the maximum length of links in characters, must be positive
+         * @return this builder
+         */
+        public Builder maxLinkLength(int maxLinkLength) {
+            if (maxLinkLength <= 0) {
+                throw new IllegalArgumentException("maxLinkLength must be positive");
+            }
+            this.maxLinkLength = maxLinkLength;
+            return this;
+        }
+
+        /**
+         * Limit how far back from the character that triggers scanning for a link (":" for URLs, "@" for email
+         * addresses) the start of the link is looked for. This is the maximum length of the scheme of a URL and of the
+         * local part of an email address. Links whose start is further back are not extracted. By default, there's no
+         * limit. Like {@link #maxLinkLength}, this counts decoded chars for UTF-8 input.
+         *
+         * @param maxLookbehind the maximum number of characters before the trigger character, must not be negative
+         * @return this builder
+         */
+        public Builder maxLookbehind(int maxLookbehind) {
+            if (maxLookbehind < 0) {
+                throw new IllegalArgumentException("maxLookbehind must not be negative");
+            }
+            this.maxLookbehind = maxLookbehind;
+            return this;
+        }
+
+        /**
+         * Use an engine that doesn't read backwards from trigger characters. The default engine jumps to the
+         * characters that trigger scanning for a link (such as ":" for URLs and "@" for email addresses) and then
+         * reads backwards to find the start of the link. The forward engine instead looks at every character and keeps
+         * track of where a link could start (the end of a link is still found by reading ahead from the trigger).
+         * <p>
+         * It's slower on typical text, but faster on text with many trigger characters (e.g. lots of "@"), and its
+         * speed depends less on the input. The links found are the same either way.
+         *
+         * @param forwardOnly true to use the forward engine; false by default
+         * @return this builder
+         */
+        public Builder forwardOnly(boolean forwardOnly) {
+            this.forwardOnly = forwardOnly;
+            return this;
+        }
+
         /**
          * @return the configured link extractor
          */
         public LinkExtractor build() {
-            UrlScanner urlScanner = linkTypes.contains(LinkType.URL) ? new UrlScanner() : null;
-            WwwScanner wwwScanner = linkTypes.contains(LinkType.WWW) ? new WwwScanner() : null;
-            EmailScanner emailScanner = linkTypes.contains(LinkType.EMAIL) ? new EmailScanner(emailDomainMustHaveDot) : null;
-            return new LinkExtractor(urlScanner, wwwScanner, emailScanner);
+            if (forwardOnly) {
+                return new LinkExtractor(new ForwardLinkFinder(linkTypes.contains(LinkType.URL),
+                        linkTypes.contains(LinkType.WWW), linkTypes.contains(LinkType.EMAIL), emailDomainMustHaveDot,
+                        maxLinkLength, maxLookbehind));
+            }
+            UrlScanner urlScanner = linkTypes.contains(LinkType.URL) ?
+                    new UrlScanner(maxLinkLength, maxLookbehind) : null;
+            WwwScanner wwwScanner = linkTypes.contains(LinkType.WWW) ? new WwwScanner(maxLinkLength) : null;
+            EmailScanner emailScanner = linkTypes.contains(LinkType.EMAIL) ?
+                    new EmailScanner(emailDomainMustHaveDot, maxLinkLength, maxLookbehind) : null;
+            return new LinkExtractor(new TriggerLinkFinder(urlScanner, wwwScanner, emailScanner));
         }
     }
 
@@ -143,7 +1088,7 @@ public class LinkExtractor {
         private int rewindIndex = 0;
 
         public LinkIterator(CharSequence input) {
-            this.input = input;
+            this.input = CharArraySequence.of(input);
         }
 
         @Override
@@ -174,21 +1119,13 @@ public class LinkExtractor {
             }
 
             int length = input.length();
-            while (index < length) {
-                Scanner scanner = trigger(input.charAt(index));
-                if (scanner != null) {
-                    LinkSpan link = scanner.scan(input, index, rewindIndex);
-                    if (link != null) {
-                        next = link;
-                        index = link.getEndIndex();
-                        rewindIndex = index;
-                        break;
-                    } else {
-                        index++;
-                    }
-                } else {
-                    index++;
-                }
+            long link = linkFinder.find(input, index, length, rewindIndex);
+            if (link != PackedLink.NONE) {
+                index = PackedLink.endIndex(link);
+                rewindIndex = index;
+                next = new LinkSpanImpl(PackedLink.type(link), PackedLink.beginIndex(link), index);
+            } else {
+                index = length;
             }
         }
     }
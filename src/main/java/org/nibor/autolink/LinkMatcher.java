@@ -0,0 +1,110 @@
+package org.nibor.autolink;
+
+import org.nibor.autolink.internal.CharArraySequence;
+import org.nibor.autolink.internal.LinkFinder;
+import org.nibor.autolink.internal.PackedLink;
+
+/**
+ * Finds links in an input one at a time, similar to {@link java.util.regex.Matcher}. Obtain one using
+ * {@link LinkExtractor#matcher(CharSequence)}, then call {@link #find()} until it returns false:
+ * <pre><code>
+ * LinkMatcher matcher = linkExtractor.matcher(input);
+ * while (matcher.find()) {
+ *     String link = input.substring(matcher.start(), matcher.end());
+ * }
+ * </code></pre>
+ * A matcher can be reused for other inputs with {@link #reset(CharSequence)}, which doesn't allocate for
+ * {@link String} input. That makes it suitable for extracting links from many small inputs, e.g. with one matcher
+ * per thread.
+ * <p>
+ * Not thread-safe.
+ */
+public class LinkMatcher {
+
+    private final LinkFinder linkFinder;
+
+    private CharSequence input;
+    private int index;
+    private long link;
+
+    LinkMatcher(LinkFinder linkFinder, CharSequence input) {
+        this.linkFinder = linkFinder;
+        reset(input);
+    }
+
+    /**
+     * Reset the matcher so that the next {@link #find()} starts at the beginning of the input again.
+     *
+     * @return this matcher
+     */
+    public LinkMatcher reset() {
+        index = 0;
+        link = PackedLink.NONE;
+        return this;
+    }
+
+    /**
+     * Reset the matcher with a new input.
+     *
+     * @param input the input text, must not be null
+     * @return this matcher
+     */
+    public LinkMatcher reset(CharSequence input) {
+        if (input == null) {
+            throw new NullPointerException("input must not be null");
+        }
+        this.input = CharArraySequence.of(input);
+        return reset();
+    }
+
+    /**
+     * Find the next link in the input, starting after the previous link.
+     *
+     * @return true if a link was found, false if there are no more links in the input
+     */
+    public boolean find() {
+        int length = input.length();
+        if (index > length) {
+            link = PackedLink.NONE;
+            return false;
+        }
+        link = linkFinder.find(input, index, length, index);
+        if (link == PackedLink.NONE) {
+            index = length + 1;
+            return false;
+        }
+        index = PackedLink.endIndex(link);
+        return true;
+    }
+
+    /**
+     * @return the type of the link found by the previous {@link #find()}
+     * @throws IllegalStateException if no link was found
+     */
+    public LinkType type() {
+        return PackedLink.type(checkMatch());
+    }
+
+    /**
+     * @return begin index (inclusive) in the input of the link found by the previous {@link #find()}
+     * @throws IllegalStateException if no link was found
+     */
+    public int start() {
+        return PackedLink.beginIndex(checkMatch());
+    }
+
+    /**
+     * @return end index (exclusive) in the input of the link found by the previous {@link #find()}
+     * @throws IllegalStateException if no link was found
+     */
+    public int end() {
+        return PackedLink.endIndex(checkMatch());
+    }
+
+    private long checkMatch() {
+        if (link == PackedLink.NONE) {
+            throw new IllegalStateException("No link found");
+        }
+        return link;
+    }
+}
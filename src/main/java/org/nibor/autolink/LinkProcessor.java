@@ -0,0 +1,235 @@
+package org.nibor.autolink;
+
+import org.nibor.autolink.internal.StreamExtractor;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link Flow.Processor} that extracts links from text arriving in chunks (e.g. the parts of an HTTP body) and
+ * publishes them as {@link ExtractedLink}s, with offsets in the whole text. Links that cross chunks are found the same
+ * as when extracting from the whole text at once (see {@link LinkExtractor#extractLinks(java.io.Reader,
+ * java.util.function.Consumer)}), without keeping the whole text. A link is published once the chunk with the
+ * whitespace (or other character that can't be part of a link) after it has been received, or on completion.
+ * <p>
+ * Chunks are requested from upstream one at a time, and only when all links of the previous chunks have been
+ * delivered and the subscriber has outstanding demand. So a slow subscriber slows down the upstream.
+ * <p>
+ * Create one using {@link LinkExtractor#processor()}. A processor can only be used for one text and supports one
+ * subscriber.
+ */
+public class LinkProcessor implements Flow.Processor<CharSequence, ExtractedLink> {
+
+    private final StreamExtractor streamExtractor;
+
+    // All fields below are guarded by this
+    private final ArrayDeque<ExtractedLink> queue = new ArrayDeque<>();
+    private Flow.Subscription upstream = null;
+    private Flow.Subscriber<? super ExtractedLink> downstream = null;
+    private long demand = 0;
+    private boolean upstreamRequested = false;
+    private boolean upstreamDone = false;
+    private Throwable error = null;
+    private boolean done = false;
+
+    // Serializes signals to the subscriber, see drain
+    private final AtomicInteger wip = new AtomicInteger();
+
+    LinkProcessor(LinkExtractor linkExtractor, int bufferSize) {
+        streamExtractor = new StreamExtractor(linkExtractor, bufferSize, queue::add);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ExtractedLink> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("subscriber must not be null");
+        }
+        synchronized (this) {
+            if (downstream == null) {
+                downstream = subscriber;
+            } else {
+                subscriber.onSubscribe(new Flow.Subscription() {
+                    @Override
+                    public void request(long n) {
+                    }
+
+                    @Override
+                    public void cancel() {
+                    }
+                });
+                subscriber.onError(new IllegalStateException("LinkProcessor only supports one subscriber"));
+                return;
+            }
+        }
+        subscriber.onSubscribe(new DownstreamSubscription());
+        drain();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        if (subscription == null) {
+            throw new NullPointerException("subscription must not be null");
+        }
+        synchronized (this) {
+            if (upstream == null && !done && !upstreamDone) {
+                upstream = subscription;
+                subscription = null;
+            }
+        }
+        if (subscription != null) {
+            subscription.cancel();
+            return;
+        }
+        drain();
+    }
+
+    @Override
+    public void onNext(CharSequence chunk) {
+        if (chunk == null) {
+            throw new NullPointerException("chunk must not be null");
+        }
+        synchronized (this) {
+            upstreamRequested = false;
+            if (done || upstreamDone) {
+                return;
+            }
+            streamExtractor.write(chunk);
+            streamExtractor.flush();
+        }
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        if (throwable == null) {
+            throw new NullPointerException("throwable must not be null");
+        }
+        synchronized (this) {
+            if (upstreamDone) {
+                return;
+            }
+            upstreamDone = true;
+            error = throwable;
+            queue.clear();
+        }
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        synchronized (this) {
+            if (upstreamDone) {
+                return;
+            }
+            upstreamDone = true;
+            if (!done) {
+                streamExtractor.finish();
+            }
+        }
+        drain();
+    }
+
+    /**
+     * Deliver queued links and terminal signals to the subscriber, and request more input if needed. Only one thread
+     * at a time runs the loop; if it's called while running (from another thread, or from a subscriber calling
+     * {@code request} in {@code onNext}), the running loop goes around once more instead.
+     */
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        while (true) {
+            while (true) {
+                Flow.Subscriber<? super ExtractedLink> subscriber;
+                ExtractedLink link = null;
+                Flow.Subscription request = null;
+                boolean terminate = false;
+                Throwable terminalError = null;
+                synchronized (this) {
+                    subscriber = downstream;
+                    if (subscriber == null || done) {
+                        break;
+                    }
+                    if (demand > 0 && !queue.isEmpty()) {
+                        link = queue.poll();
+                        demand--;
+                    } else if (queue.isEmpty() && upstreamDone) {
+                        done = true;
+                        terminate = true;
+                        terminalError = error;
+                    } else if (queue.isEmpty() && demand > 0 && upstream != null && !upstreamRequested) {
+                        upstreamRequested = true;
+                        request = upstream;
+                    }
+                }
+                if (link != null) {
+                    subscriber.onNext(link);
+                } else if (terminate) {
+                    if (terminalError != null) {
+                        subscriber.onError(terminalError);
+                    } else {
+                        subscriber.onComplete();
+                    }
+                    break;
+                } else if (request != null) {
+                    request.request(1);
+                } else {
+                    break;
+                }
+            }
+            missed = wip.addAndGet(-missed);
+            if (missed == 0) {
+                return;
+            }
+        }
+    }
+
+    private class DownstreamSubscription implements Flow.Subscription {
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                Flow.Subscription cancel;
+                synchronized (LinkProcessor.this) {
+                    if (done) {
+                        return;
+                    }
+                    cancel = upstream;
+                    upstreamDone = true;
+                    error = new IllegalArgumentException("request must be positive, was " + n);
+                    queue.clear();
+                }
+                if (cancel != null) {
+                    cancel.cancel();
+                }
+            } else {
+                synchronized (LinkProcessor.this) {
+                    demand += n;
+                    if (demand < 0) {
+                        // Overflow, treat as unbounded
+                        demand = Long.MAX_VALUE;
+                    }
+                }
+            }
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            Flow.Subscription cancel;
+            synchronized (LinkProcessor.this) {
+                if (done) {
+                    return;
+                }
+                done = true;
+                queue.clear();
+                cancel = upstream;
+            }
+            if (cancel != null) {
+                cancel.cancel();
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.nibor.autolink;
+
+import java.io.IOException;
+
+/**
+ * Callback for rewriting links, see {@link LinkExtractor#rewriteLinks(CharSequence, LinkReplacer)}.
+ * <p>
+ * The link is passed as offsets into the input instead of as a substring, so the replacement can be built without
+ * allocating, e.g. by appending parts of the link using {@link Appendable#append(CharSequence, int, int)}.
+ */
+@FunctionalInterface
+public interface LinkReplacer {
+
+    /**
+     * Write the replacement for a link to the output. To keep the link as is, append
+     * {@code input.subSequence(beginIndex, endIndex)} using {@code output.append(input, beginIndex, endIndex)}.
+     *
+     * @param input the input text
+     * @param type the type of link
+     * @param beginIndex begin index (inclusive) in the input that the link starts at
+     * @param endIndex end index (exclusive) in the input that the link ends at
+     * @param output the output to append the replacement to
+     * @throws IOException if appending to the output fails
+     */
+    void replace(CharSequence input, LinkType type, int beginIndex, int endIndex, Appendable output)
+            throws IOException;
+
+}
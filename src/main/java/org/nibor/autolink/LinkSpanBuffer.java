@@ -0,0 +1,180 @@
+package org.nibor.autolink;
+
+import org.nibor.autolink.internal.LinkSpanImpl;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+/**
+ * A compact, reusable container for extracted links. Links are stored in primitive arrays instead of as one object
+ * per link, and the buffer can be cleared and filled again without allocating.
+ * <p>
+ * Fill it using {@link LinkExtractor#extractLinks(CharSequence, LinkConsumer)}, which appends the links of the input:
+ * <pre><code>
+ * LinkSpanBuffer links = new LinkSpanBuffer();
+ * linkExtractor.extractLinks(input, links);
+ * for (int i = 0; i &lt; links.size(); i++) {
+ *     String link = input.substring(links.getBeginIndex(i), links.getEndIndex(i));
+ * }
+ * </code></pre>
+ * Not thread-safe.
+ */
+public class LinkSpanBuffer implements LinkConsumer {
+
+    private static final LinkType[] TYPES = LinkType.values();
+
+    private int[] beginIndexes;
+    private int[] endIndexes;
+    private byte[] types;
+    private int size = 0;
+
+    /**
+     * Create an empty buffer with a default initial capacity.
+     */
+    public LinkSpanBuffer() {
+        this(16);
+    }
+
+    /**
+     * Create an empty buffer.
+     *
+     * @param initialCapacity the number of links that can be added before the buffer needs to grow
+     */
+    public LinkSpanBuffer(int initialCapacity) {
+        if (initialCapacity < 0) {
+            throw new IllegalArgumentException("initialCapacity must not be negative");
+        }
+        beginIndexes = new int[initialCapacity];
+        endIndexes = new int[initialCapacity];
+        types = new byte[initialCapacity];
+    }
+
+    /**
+     * Add a link at the end of the buffer.
+     *
+     * @param type the type of link
+     * @param beginIndex begin index (inclusive) in the input that the link starts at
+     * @param endIndex end index (exclusive) in the input that the link ends at
+     */
+    @Override
+    public void accept(LinkType type, int beginIndex, int endIndex) {
+        if (size == types.length) {
+            int capacity = Math.max(16, size + (size >> 1));
+            beginIndexes = Arrays.copyOf(beginIndexes, capacity);
+            endIndexes = Arrays.copyOf(endIndexes, capacity);
+            types = Arrays.copyOf(types, capacity);
+        }
+        beginIndexes[size] = beginIndex;
+        endIndexes[size] = endIndex;
+        types[size] = (byte) type.ordinal();
+        size++;
+    }
+
+    /**
+     * Remove all links, keeping the allocated capacity for reuse.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * @return the number of links in the buffer
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true if there are no links in the buffer
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param index the index of the link in the buffer
+     * @return the type of link
+     */
+    public LinkType getType(int index) {
+        return TYPES[types[checkIndex(index)]];
+    }
+
+    /**
+     * @param index the index of the link in the buffer
+     * @return begin index (inclusive) in the input that the link starts at
+     */
+    public int getBeginIndex(int index) {
+        return beginIndexes[checkIndex(index)];
+    }
+
+    /**
+     * @param index the index of the link in the buffer
+     * @return end index (exclusive) in the input that the link ends at
+     */
+    public int getEndIndex(int index) {
+        return endIndexes[checkIndex(index)];
+    }
+
+    /**
+     * @param index the index of the link in the buffer
+     * @return the link as a span object (allocates a new object)
+     */
+    public LinkSpan get(int index) {
+        return new LinkSpanImpl(getType(index), beginIndexes[index], endIndexes[index]);
+    }
+
+    /**
+     * Pass all links in the buffer to the consumer, in order. Can be called repeatedly and doesn't allocate.
+     *
+     * @param consumer the consumer to call for each link
+     */
+    public void forEach(LinkConsumer consumer) {
+        for (int i = 0; i < size; i++) {
+            consumer.accept(TYPES[types[i]], beginIndexes[i], endIndexes[i]);
+        }
+    }
+
+    /**
+     * @return a stream of the begin indexes of the links in the buffer, which must not be modified while the stream
+     * is used
+     */
+    public IntStream beginIndexes() {
+        return Arrays.stream(beginIndexes, 0, size);
+    }
+
+    /**
+     * @return a stream of the end indexes of the links in the buffer, which must not be modified while the stream is
+     * used
+     */
+    public IntStream endIndexes() {
+        return Arrays.stream(endIndexes, 0, size);
+    }
+
+    /**
+     * @return a stream of the lengths of the links in the buffer, which must not be modified while the stream is used
+     */
+    public IntStream lengths() {
+        final int[] begins = beginIndexes;
+        final int[] ends = endIndexes;
+        return IntStream.range(0, size).map(i -> ends[i] - begins[i]);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("LinkSpanBuffer[");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(TYPES[types[i]]).append(' ').append(beginIndexes[i]).append('-').append(endIndexes[i]);
+        }
+        return sb.append(']').toString();
+    }
+
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("index " + index + ", size " + size);
+        }
+        return index;
+    }
+}
@@ -0,0 +1,167 @@
+package org.nibor.autolink;
+
+import org.nibor.autolink.internal.TailExtractor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Extracts links from a UTF-8 encoded file that is being appended to, such as a log file (like {@code tail -f}).
+ * <p>
+ * Each {@link #poll} scans only the bytes that were appended since the last one. Text after the last whitespace (or
+ * other character that can't be part of a link) is held back until more is written, so that a link that is only
+ * partially written isn't cut short. The position up to which the file has been scanned is saved in a checkpoint
+ * file after each poll, so a new tailer for the same files resumes there instead of scanning the file again.
+ * <p>
+ * Links are passed to the consumer before the checkpoint is saved. So if the process stops in between, the links are
+ * passed again by the next tailer (at-least-once). If the file gets shorter than the saved position (truncated), the
+ * tailer starts again from the beginning. The same happens if the file is replaced by a different one, e.g. when a log
+ * file is rotated, even if the new file is already longer: the checkpoint also contains the identity of the file (its
+ * {@link BasicFileAttributes#fileKey() file key}, such as the inode, or its creation time where there's none).
+ * <p>
+ * Create one using {@link LinkExtractor#tailer(Path, Path)}. Not thread-safe.
+ */
+public class LinkTailer {
+
+    private final Path file;
+    private final Path checkpointFile;
+    private final TailExtractor tailExtractor;
+    private long position = 0;
+    // Identity of the file that the position is in, null if not known (yet)
+    private String fileIdentity = null;
+
+    LinkTailer(LinkExtractor linkExtractor, Path file, Path checkpointFile, int bufferSize) throws IOException {
+        this.file = file;
+        this.checkpointFile = checkpointFile;
+        this.tailExtractor = new TailExtractor(linkExtractor, bufferSize);
+        readCheckpoint();
+    }
+
+    /**
+     * @return the position in bytes up to which the file has been scanned (the same as in the checkpoint)
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    /**
+     * Scan the bytes that were appended to the file since the last poll, and save the new position in the checkpoint
+     * file. If the file doesn't exist (yet), nothing is scanned. If it was truncated or replaced by a different file,
+     * it's scanned from the beginning.
+     *
+     * @param consumer the consumer that is called for each link in order that they appear in the file, offsets are in
+     * bytes from the start of the file; must not be null
+     * @return true if the position changed or the file was replaced
+     * @throws IOException if reading the file or writing the checkpoint fails
+     */
+    public boolean poll(Consumer<? super ExtractedLink> consumer) throws IOException {
+        if (consumer == null) {
+            throw new NullPointerException("consumer must not be null");
+        }
+        long newPosition;
+        String identity;
+        try {
+            // Before opening, so that if the file is replaced in between, the next poll sees that and starts over
+            identity = readFileIdentity();
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                boolean replaced = fileIdentity != null && !fileIdentity.equals(identity);
+                long start = replaced || channel.size() < position ? 0 : position;
+                newPosition = tailExtractor.extract(channel, start, consumer);
+            }
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        if (newPosition == position && identity.equals(fileIdentity)) {
+            return false;
+        }
+        writeCheckpoint(newPosition, identity);
+        position = newPosition;
+        fileIdentity = identity;
+        return true;
+    }
+
+    /**
+     * Keep polling the file (see {@link #poll}) until cancelled, waiting for the interval after each poll that
+     * didn't find any appended text.
+     *
+     * @param consumer the consumer that is called for each link, see {@link #poll}; must not be null
+     * @param interval the time to wait between polls, must not be null
+     * @param cancelled checked before each poll, polling stops when it returns true; must not be null
+     * @throws IOException if reading the file or writing the checkpoint fails
+     * @throws InterruptedException if the thread is interrupted while waiting
+     */
+    public void follow(Consumer<? super ExtractedLink> consumer, Duration interval, BooleanSupplier cancelled)
+            throws IOException, InterruptedException {
+        if (consumer == null) {
+            throw new NullPointerException("consumer must not be null");
+        }
+        if (interval == null) {
+            throw new NullPointerException("interval must not be null");
+        }
+        if (cancelled == null) {
+            throw new NullPointerException("cancelled must not be null");
+        }
+        while (!cancelled.getAsBoolean()) {
+            if (!poll(consumer)) {
+                Thread.sleep(interval.toMillis());
+            }
+        }
+    }
+
+    private String readFileIdentity() throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        Object fileKey = attributes.fileKey();
+        return fileKey != null ? fileKey.toString() : attributes.creationTime().toString();
+    }
+
+    private void readCheckpoint() throws IOException {
+        String content;
+        try {
+            content = new String(Files.readAllBytes(checkpointFile), StandardCharsets.UTF_8).trim();
+        } catch (NoSuchFileException e) {
+            return;
+        }
+        // The position, optionally followed by the identity of the file on the next line
+        String[] lines = content.split("\n", 2);
+        try {
+            long value = Long.parseLong(lines[0]);
+            if (value < 0) {
+                throw new NumberFormatException();
+            }
+            position = value;
+        } catch (NumberFormatException e) {
+            throw new IOException("Invalid checkpoint in " + checkpointFile + ": " + content);
+        }
+        fileIdentity = lines.length > 1 ? lines[1] : null;
+    }
+
+    private void writeCheckpoint(long value, String identity) throws IOException {
+        // Write to a temporary file first and then move it over the checkpoint, so that it's never partially written
+        Path temp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer bytes = ByteBuffer.wrap((value + "\n" + identity + "\n").getBytes(StandardCharsets.UTF_8));
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(true);
+        }
+        try {
+            Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, checkpointFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
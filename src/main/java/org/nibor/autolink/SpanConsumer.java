@@ -0,0 +1,15 @@
+package org.nibor.autolink;
+
+/**
+ * Callback for extracted spans, see {@link LinkExtractor#extractSpans(CharSequence, SpanConsumer)}. Links are passed
+ * to {@link #accept(LinkType, int, int)}, the plain text pieces of the input to {@link #acceptText(int, int)}.
+ */
+public interface SpanConsumer extends LinkConsumer {
+
+    /**
+     * @param beginIndex begin index (inclusive) in the input that the plain text starts at
+     * @param endIndex end index (exclusive) in the input that the plain text ends at
+     */
+    void acceptText(int beginIndex, int endIndex);
+
+}
@@ -0,0 +1,139 @@
+package org.nibor.autolink.internal;
+
+import org.nibor.autolink.LinkConsumer;
+
+import java.util.function.BooleanSupplier;
+
+/**
+ * Extracts links in chunks of about {@code checkInterval} characters and checks for cancellation before each chunk.
+ * <p>
+ * Like with {@link ParallelExtractor}, chunks end after a boundary character, so the result for the chunks before
+ * cancellation is the same as for the whole input, and no link extends past the last processed chunk. The scanners
+ * themselves don't check for cancellation, so that their loops stay tight. Text without any boundary characters can't
+ * be split though. So when a chunk would be a lot longer than the interval, links are found one at a time instead,
+ * through a view of the input that checks for cancellation every {@code checkInterval} reads. If cancelled there, the
+ * input is processed up to the end of the last link that was found: the links before it are the same as for the whole
+ * input, but after it, a link could start anywhere in the run.
+ */
+public class CancellableExtractor {
+
+    private final LinkFinder linkFinder;
+    private final int checkInterval;
+
+    public CancellableExtractor(LinkFinder linkFinder, int checkInterval) {
+        if (checkInterval <= 0) {
+            throw new IllegalArgumentException("checkInterval must be positive");
+        }
+        this.linkFinder = linkFinder;
+        this.checkInterval = checkInterval;
+    }
+
+    /**
+     * @return the index up to which the input was processed, the length of the input if it was not cancelled
+     */
+    public int extract(CharSequence input, LinkConsumer consumer, BooleanSupplier cancelled) {
+        int length = input.length();
+        CheckingSequence checking = null;
+        // No boundary characters in the input before this index, from where the last search for one started
+        int runEnd = 0;
+        int begin = 0;
+        while (begin < length) {
+            if (begin < runEnd) {
+                // In a long run without boundary characters, find the next link while checking for cancellation. The
+                // run can't be split, so the next link could be anywhere in it (or after it).
+                if (checking == null) {
+                    checking = new CheckingSequence(input, cancelled);
+                }
+                long link;
+                try {
+                    link = linkFinder.find(checking, begin, length, begin);
+                } catch (CancelledException e) {
+                    return begin;
+                }
+                if (link == PackedLink.NONE) {
+                    return length;
+                }
+                begin = PackedLink.endIndex(link);
+                consumer.accept(PackedLink.type(link), PackedLink.beginIndex(link), begin);
+                continue;
+            }
+
+            if (cancelled.getAsBoolean()) {
+                return begin;
+            }
+            int desiredEnd = (int) Math.min((long) begin + checkInterval, length);
+            int searchEnd = (int) Math.min((long) desiredEnd + checkInterval, length);
+            int end = chunkEnd(input, desiredEnd, searchEnd);
+            if (end == -1) {
+                runEnd = searchEnd;
+                continue;
+            }
+            int index = begin;
+            long link;
+            while ((link = linkFinder.find(input, index, end, index)) != PackedLink.NONE) {
+                index = PackedLink.endIndex(link);
+                consumer.accept(PackedLink.type(link), PackedLink.beginIndex(link), index);
+            }
+            begin = end;
+        }
+        return length;
+    }
+
+    // End the chunk after the first boundary character, starting with the one at the desired end. Returns the length
+    // of the input if it ends before searchEnd, or -1 if there's no boundary character before searchEnd.
+    private int chunkEnd(CharSequence input, int desiredEnd, int searchEnd) {
+        for (int i = desiredEnd - 1; i < searchEnd; i++) {
+            if (Scanners.isBoundary(input.charAt(i))) {
+                return i + 1;
+            }
+        }
+        return searchEnd == input.length() ? searchEnd : -1;
+    }
+
+    // Checks for cancellation every checkInterval reads, and stops scanning by throwing if cancelled
+    private class CheckingSequence implements CharSequence {
+
+        private final CharSequence input;
+        private final BooleanSupplier cancelled;
+        private int reads = 0;
+
+        CheckingSequence(CharSequence input, BooleanSupplier cancelled) {
+            this.input = input;
+            this.cancelled = cancelled;
+        }
+
+        @Override
+        public int length() {
+            return input.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (++reads == checkInterval) {
+                reads = 0;
+                if (cancelled.getAsBoolean()) {
+                    throw new CancelledException();
+                }
+            }
+            return input.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return input.subSequence(start, end);
+        }
+
+        @Override
+        public String toString() {
+            return input.toString();
+        }
+    }
+
+    private static class CancelledException extends RuntimeException {
+
+        CancelledException() {
+            // Only used for control flow, so no stack trace
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package org.nibor.autolink.internal;
+
+import java.nio.CharBuffer;
+
+/**
+ * View of a range of a char array, without copying it.
+ * <p>
+ * Input is converted to this (or left as a {@link String}) once per extraction, see {@link #of}, so that the scanners
+ * only ever see these two types. Otherwise, if an application passes different {@link CharSequence} types, the calls to
+ * {@link CharSequence#charAt} in the scanners become megamorphic and can no longer be inlined by the JIT.
+ */
+public final class CharArraySequence implements CharSequence {
+
+    private char[] array;
+    private int offset;
+    private int length;
+
+    public CharArraySequence(char[] array, int offset, int length) {
+        reset(array, offset, length);
+    }
+
+    /**
+     * View a different range instead, so that one instance can be reused for many ranges without allocating.
+     *
+     * @return this
+     */
+    public CharArraySequence reset(char[] array, int offset, int length) {
+        this.array = array;
+        this.offset = offset;
+        this.length = length;
+        return this;
+    }
+
+    /**
+     * Convert the input for scanning. Strings and the internal sequence types are returned as is. Heap char buffers
+     * are viewed from their position to their limit without copying, string builders are copied. Other types are
+     * returned as is and scanned via the generic (slower) path.
+     */
+    public static CharSequence of(CharSequence input) {
+        if (input instanceof String || input instanceof CharArraySequence || input instanceof Utf8CharSequence) {
+            return input;
+        } else if (input instanceof CharBuffer) {
+            CharBuffer buffer = (CharBuffer) input;
+            if (buffer.hasArray()) {
+                return new CharArraySequence(buffer.array(), buffer.arrayOffset() + buffer.position(),
+                        buffer.remaining());
+            }
+        } else if (input instanceof StringBuilder || input instanceof StringBuffer) {
+            int length = input.length();
+            char[] array = new char[length];
+            if (input instanceof StringBuilder) {
+                ((StringBuilder) input).getChars(0, length, array, 0);
+            } else {
+                ((StringBuffer) input).getChars(0, length, array, 0);
+            }
+            return new CharArraySequence(array, 0, length);
+        }
+        return input;
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index " + index + ", length " + length);
+        }
+        return array[offset + index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || start > end || end > length) {
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length);
+        }
+        return new CharArraySequence(array, offset + start, end - start);
+    }
+
+    @Override
+    public String toString() {
+        return new String(array, offset, length);
+    }
+}
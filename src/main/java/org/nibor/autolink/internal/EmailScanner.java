@@ -1,6 +1,5 @@
 package org.nibor.autolink.internal;
 
-import org.nibor.autolink.LinkSpan;
 import org.nibor.autolink.LinkType;
 
 /**
@@ -11,35 +10,58 @@ import org.nibor.autolink.LinkType;
 public class EmailScanner implements Scanner {
 
     private final boolean domainMustHaveDot;
+    private final int maxLength;
+    private final int maxLookbehind;
 
     public EmailScanner(boolean domainMustHaveDot) {
+        this(domainMustHaveDot, Integer.MAX_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param domainMustHaveDot whether the domain must have more than one part
+     * @param maxLength the maximum length of an email address, see
+     * {@link org.nibor.autolink.LinkExtractor.Builder#maxLinkLength}
+     * @param maxLookbehind the maximum length of a local part, see
+     * {@link org.nibor.autolink.LinkExtractor.Builder#maxLookbehind}
+     */
+    public EmailScanner(boolean domainMustHaveDot, int maxLength, int maxLookbehind) {
         this.domainMustHaveDot = domainMustHaveDot;
+        this.maxLength = maxLength;
+        this.maxLookbehind = maxLookbehind;
     }
 
     @Override
-    public LinkSpan scan(CharSequence input, int triggerIndex, int rewindIndex) {
+    public long scan(CharSequence input, int triggerIndex, int rewindIndex) {
         int beforeAt = triggerIndex - 1;
-        int first = findFirst(input, beforeAt, rewindIndex);
-        if (first == -1) {
-            return null;
+        int first = findFirst(input, beforeAt, rewindIndex,
+                Scanners.minBeginIndex(input, triggerIndex, maxLookbehind));
+        if (first == -1 || Scanners.isLonger(input, first, triggerIndex, maxLookbehind)) {
+            return PackedLink.NONE;
         }
 
         int afterAt = triggerIndex + 1;
-        int last = findLast(input, afterAt);
+        int last = findLast(input, afterAt, domainMustHaveDot);
         if (last == -1) {
-            return null;
+            return PackedLink.NONE;
+        } else if (Scanners.isLonger(input, first, last + 1, maxLength)) {
+            // Too long, continue after it (instead of after the trigger) so that no link is found within it
+            return PackedLink.skip(last + 1);
         }
 
-        return new LinkSpanImpl(LinkType.EMAIL, first, last + 1);
+        return PackedLink.pack(LinkType.EMAIL, first, last + 1);
     }
 
     // See "Local-part" in RFC 5321, plus extensions in RFC 6531
-    private int findFirst(CharSequence input, int beginIndex, int rewindIndex) {
+    private int findFirst(CharSequence input, int beginIndex, int rewindIndex, int limitIndex) {
         int first = -1;
         boolean atomBoundary = true;
         for (int i = beginIndex; i >= rewindIndex; i--) {
             char c = input.charAt(i);
             if (localAtomAllowed(c)) {
+                if (i < limitIndex) {
+                    // Local part is too long
+                    return -1;
+                }
                 first = i;
                 atomBoundary = false;
             } else if (c == '.') {
@@ -54,8 +76,8 @@ public class EmailScanner implements Scanner {
         return first;
     }
 
-    // See "Domain" in RFC 5321, plus extension of "sub-domain" in RFC 6531
-    private int findLast(CharSequence input, int beginIndex) {
+    // See "Domain" in RFC 5321, plus extension of "sub-domain" in RFC 6531. Also used by ForwardLinkFinder.
+    static int findLast(CharSequence input, int beginIndex, boolean domainMustHaveDot) {
         boolean firstInSubDomain = true;
         boolean canEndSubDomain = false;
         int firstDot = -1;
@@ -98,37 +120,12 @@ public class EmailScanner implements Scanner {
 
     // See "Atom" in RFC 5321, "atext" in RFC 5322
     private boolean localAtomAllowed(char c) {
-        if (Scanners.isAlnum(c) || Scanners.isNonAscii(c)) {
-            return true;
-        }
-        switch (c) {
-            case '!':
-            case '#':
-            case '$':
-            case '%':
-            case '&':
-            case '\'':
-            case '*':
-            case '+':
-            case '-':
-            case '/':
-            case '=':
-            case '?':
-            case '^':
-            case '_':
-            case '`':
-            case '{':
-            case '|':
-            case '}':
-            case '~':
-                return true;
-        }
-        return false;
+        return Scanners.isLocalAtom(c);
     }
 
     // See "sub-domain" in RFC 5321. Extension in RFC 6531 is simplified, this can also match invalid domains.
-    private boolean subDomainAllowed(char c) {
-        return Scanners.isAlnum(c) || Scanners.isNonAscii(c);
+    private static boolean subDomainAllowed(char c) {
+        return Scanners.isSubDomain(c);
     }
 
 }
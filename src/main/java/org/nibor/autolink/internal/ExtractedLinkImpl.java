@@ -0,0 +1,45 @@
+package org.nibor.autolink.internal;
+
+import org.nibor.autolink.ExtractedLink;
+import org.nibor.autolink.LinkType;
+
+public class ExtractedLinkImpl implements ExtractedLink {
+
+    private final LinkType linkType;
+    private final long beginOffset;
+    private final long endOffset;
+    private final String text;
+
+    public ExtractedLinkImpl(LinkType linkType, long beginOffset, long endOffset, String text) {
+        this.linkType = linkType;
+        this.beginOffset = beginOffset;
+        this.endOffset = endOffset;
+        this.text = text;
+    }
+
+    @Override
+    public LinkType getType() {
+        return linkType;
+    }
+
+    @Override
+    public long getBeginOffset() {
+        return beginOffset;
+    }
+
+    @Override
+    public long getEndOffset() {
+        return endOffset;
+    }
+
+    @Override
+    public String getText() {
+        return text;
+    }
+
+    @Override
+    public String toString() {
+        return "Link{type=" + linkType + ", beginOffset=" + beginOffset + ", endOffset=" + endOffset +
+                ", text=" + text + "}";
+    }
+}
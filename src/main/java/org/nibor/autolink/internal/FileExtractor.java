@@ -0,0 +1,75 @@
+package org.nibor.autolink.internal;
+
+import org.nibor.autolink.ExtractedLink;
+import org.nibor.autolink.LinkExtractor;
+import org.nibor.autolink.LinkSpan;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.function.Consumer;
+
+/**
+ * Extracts links from a UTF-8 encoded file by mapping it into memory window by window and scanning the bytes in place.
+ * <p>
+ * Like with {@link StreamExtractor}, each window is only scanned up to and including the last boundary character
+ * (see {@link Scanners#isBoundary}), the next window starts after that. This gives the same result as scanning the
+ * whole file at once.
+ */
+public class FileExtractor {
+
+    private final LinkExtractor linkExtractor;
+    private final int windowSize;
+
+    public FileExtractor(LinkExtractor linkExtractor, int windowSize) {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("windowSize must be positive");
+        }
+        this.linkExtractor = linkExtractor;
+        this.windowSize = windowSize;
+    }
+
+    public void extract(FileChannel channel, Consumer<? super ExtractedLink> consumer) throws IOException {
+        long size = channel.size();
+        long position = 0;
+        int window = windowSize;
+        while (position < size) {
+            long remaining = size - position;
+            int mapSize = (int) Math.min(window, remaining);
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, position, mapSize);
+            int safeEnd = mapSize;
+            if (mapSize < remaining) {
+                safeEnd = lastBoundary(mapped, mapSize) + 1;
+                if (safeEnd == 0 && window < Integer.MAX_VALUE) {
+                    // No boundary in the whole window, retry with a bigger one. If the window can't grow anymore,
+                    // scan it as is, this is the only case where the result can differ from scanning all at once.
+                    window = (int) Math.min(window * 2L, Integer.MAX_VALUE);
+                    continue;
+                } else if (safeEnd == 0) {
+                    safeEnd = mapSize;
+                }
+            }
+
+            mapped.limit(safeEnd);
+            Utf8CharSequence input = new Utf8CharSequence(mapped);
+            for (LinkSpan link : linkExtractor.extractLinks(input)) {
+                int begin = link.getBeginIndex();
+                int end = link.getEndIndex();
+                consumer.accept(new ExtractedLinkImpl(link.getType(), position + begin, position + end,
+                        input.decode(begin, end)));
+            }
+            position += safeEnd;
+            window = windowSize;
+        }
+    }
+
+    private static int lastBoundary(MappedByteBuffer buffer, int length) {
+        for (int i = length - 1; i >= 0; i--) {
+            // Boundary characters are ASCII, so they can't be part of a multi-byte sequence in UTF-8
+            if (Scanners.isBoundary((char) (buffer.get(i) & 0xFF))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,192 @@
+package org.nibor.autolink.internal;
+
+import org.nibor.autolink.LinkType;
+
+import static org.nibor.autolink.internal.Scanners.ALPHA;
+import static org.nibor.autolink.internal.Scanners.DIGIT;
+import static org.nibor.autolink.internal.Scanners.LOCAL_ATOM;
+import static org.nibor.autolink.internal.Scanners.SCHEME_SPECIAL;
+
+/**
+ * Finds links without walking back from trigger characters.
+ * <p>
+ * {@link TriggerLinkFinder} jumps from trigger character to trigger character and then walks back to find where the
+ * scheme of a URL or the local part of an email address starts. Instead, this looks at every character and keeps track
+ * of where a scheme or local part that ends at the current character would start, using the character classes of
+ * {@link Scanners}. So when a trigger character is reached, the start of the link is already known.
+ * <p>
+ * This is not a single pass though: the end of a link is found the same way as by the scanners, by reading ahead from
+ * the trigger character. If that doesn't result in a link, the characters after the trigger are read again, as the
+ * search continues at the next character. So like with {@link TriggerLinkFinder}, each character is read a bounded
+ * number of times, not once.
+ * <p>
+ * The work per character doesn't depend on the number of trigger characters, whereas {@link TriggerLinkFinder} reads
+ * the characters before each trigger character again. So this is slower on typical text, where the other one skips
+ * most characters with its fast search for trigger characters, but faster on input that is dense with trigger
+ * characters (e.g. many "@"), and its speed depends less on the input. The links found are exactly the same as with
+ * {@link TriggerLinkFinder} with the same configuration.
+ */
+public class ForwardLinkFinder implements LinkFinder {
+
+    private static final int SCHEME = ALPHA | DIGIT | SCHEME_SPECIAL;
+
+    private final boolean url;
+    private final boolean www;
+    private final boolean email;
+    private final boolean emailDomainMustHaveDot;
+    private final int maxLength;
+    private final int maxLookbehind;
+
+    /**
+     * @param emailDomainMustHaveDot see {@link EmailScanner#EmailScanner(boolean, int, int)}
+     * @param maxLength the maximum length of a link, see {@link org.nibor.autolink.LinkExtractor.Builder#maxLinkLength}
+     * @param maxLookbehind the maximum length of a scheme or local part, see
+     * {@link org.nibor.autolink.LinkExtractor.Builder#maxLookbehind}
+     */
+    public ForwardLinkFinder(boolean url, boolean www, boolean email, boolean emailDomainMustHaveDot, int maxLength,
+                             int maxLookbehind) {
+        this.url = url;
+        this.www = www;
+        this.email = email;
+        this.emailDomainMustHaveDot = emailDomainMustHaveDot;
+        this.maxLength = maxLength;
+        this.maxLookbehind = maxLookbehind;
+    }
+
+    @Override
+    public long find(CharSequence input, int beginIndex, int endIndex, int rewindIndex) {
+        // Run of scheme characters that ends before the current index: its first letter and first digit
+        int schemeAlpha = -1;
+        int schemeDigit = -1;
+        // Start of the local part of an email address that ends before the current index, see EmailScanner
+        int localStart = -1;
+        // Whether the previous character is a dot, and whether it's a dot, letter or digit
+        boolean afterDot = false;
+        boolean afterAlnumOrDot = false;
+
+        // Characters before beginIndex are only looked at to know where a scheme or local part starts
+        int index = rewindIndex;
+        while (index < endIndex) {
+            char c = input.charAt(index);
+            if (index >= beginIndex) {
+                long link = PackedLink.NONE;
+                if (c == ':') {
+                    if (url) {
+                        int first = schemeAlpha;
+                        // The scheme is ASCII, so its length is the same for UTF-8 input
+                        if (first < index - maxLookbehind || (first > 0 && first - 1 == schemeDigit)) {
+                            // Scheme too long, or we don't want to extract "abc://foo" out of "1abc://foo"
+                            first = -1;
+                        }
+                        link = scanUrl(input, index, first);
+                    }
+                } else if (c == '@') {
+                    if (email) {
+                        boolean tooLong = localStart != -1 && Scanners.isLonger(input, localStart, index,
+                                maxLookbehind);
+                        int first = afterDot || tooLong ? -1 : localStart;
+                        link = scanEmail(input, index, first);
+                    }
+                } else if (c == 'w') {
+                    if (www) {
+                        link = scanWww(input, index, afterAlnumOrDot ? -1 : index);
+                    }
+                }
+                if (PackedLink.isSkip(link)) {
+                    index = PackedLink.endIndex(link);
+                    schemeAlpha = -1;
+                    schemeDigit = -1;
+                    localStart = -1;
+                    afterDot = false;
+                    afterAlnumOrDot = false;
+                    continue;
+                } else if (link != PackedLink.NONE) {
+                    return link;
+                }
+            }
+
+            int charClass = Scanners.charClass(c);
+            if ((charClass & SCHEME) != 0) {
+                if (schemeAlpha == -1 && (charClass & ALPHA) != 0) {
+                    schemeAlpha = index;
+                }
+                if (schemeDigit == -1 && (charClass & DIGIT) != 0) {
+                    schemeDigit = index;
+                }
+            } else {
+                schemeAlpha = -1;
+                schemeDigit = -1;
+            }
+            if ((charClass & LOCAL_ATOM) != 0) {
+                if (localStart == -1) {
+                    localStart = index;
+                }
+            } else if (c != '.' || afterDot) {
+                // A local part can't contain "..", so it starts after it at the earliest
+                localStart = -1;
+            }
+            afterDot = c == '.';
+            afterAlnumOrDot = afterDot || (charClass & (ALPHA | DIGIT)) != 0;
+            index++;
+        }
+        return PackedLink.NONE;
+    }
+
+    // See UrlScanner
+    private long scanUrl(CharSequence input, int triggerIndex, int first) {
+        int afterSlashSlash = triggerIndex + 3;
+        if (first == -1 || afterSlashSlash >= input.length() || input.charAt(triggerIndex + 1) != '/' ||
+                input.charAt(triggerIndex + 2) != '/') {
+            return PackedLink.NONE;
+        }
+
+        int last = Scanners.findUrlEnd(input, afterSlashSlash);
+        if (last == -1) {
+            return PackedLink.NONE;
+        } else if (Scanners.isLonger(input, first, last + 1, maxLength)) {
+            return PackedLink.skip(last + 1);
+        }
+        return PackedLink.pack(LinkType.URL, first, last + 1);
+    }
+
+    // See EmailScanner
+    private long scanEmail(CharSequence input, int triggerIndex, int first) {
+        if (first == -1) {
+            return PackedLink.NONE;
+        }
+
+        int afterAt = triggerIndex + 1;
+        int last = EmailScanner.findLast(input, afterAt, emailDomainMustHaveDot);
+        if (last == -1) {
+            return PackedLink.NONE;
+        } else if (Scanners.isLonger(input, first, last + 1, maxLength)) {
+            return PackedLink.skip(last + 1);
+        }
+        return PackedLink.pack(LinkType.EMAIL, first, last + 1);
+    }
+
+    // See WwwScanner
+    private long scanWww(CharSequence input, int triggerIndex, int first) {
+        int afterDot = triggerIndex + 4;
+        if (first == -1 || afterDot >= input.length() || input.charAt(triggerIndex + 1) != 'w' ||
+                input.charAt(triggerIndex + 2) != 'w' || input.charAt(triggerIndex + 3) != '.') {
+            return PackedLink.NONE;
+        }
+
+        int last = Scanners.findUrlEnd(input, afterDot);
+        if (last == -1) {
+            return PackedLink.NONE;
+        }
+        // Make sure there is at least one dot after the first dot, so www.something is not allowed
+        boolean hasDot = false;
+        for (int i = afterDot + 1; i < last && !hasDot; i++) {
+            hasDot = input.charAt(i) == '.';
+        }
+        if (!hasDot) {
+            return PackedLink.NONE;
+        } else if (Scanners.isLonger(input, first, last + 1, maxLength)) {
+            return PackedLink.skip(last + 1);
+        }
+        return PackedLink.pack(LinkType.WWW, first, last + 1);
+    }
+}
@@ -0,0 +1,98 @@
+package org.nibor.autolink.internal;
+
+import org.nibor.autolink.LinkSpan;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Updates the links of a text after an edit by only scanning the region around the edit again.
+ * <p>
+ * The region is extended to the boundary characters (see {@link Scanners#isBoundary}) before and after the edit. No
+ * scanner reads across a boundary, neither backwards (e.g. for the local part of an email address or the scheme of an
+ * URL) nor forwards (for the end of a link). So the links outside of the region are the same as before (just moved by
+ * the change in length), and scanning the region on its own gives the same links as scanning the whole text.
+ */
+public class IncrementalExtractor {
+
+    private final LinkFinder linkFinder;
+
+    public IncrementalExtractor(LinkFinder linkFinder) {
+        this.linkFinder = linkFinder;
+    }
+
+    /**
+     * @param input the text after the edit
+     * @param previousLinks the links of the text before the edit
+     * @param offset the index of the edit
+     * @param removedLength the number of characters removed at the offset
+     * @param insertedLength the number of characters inserted at the offset
+     * @return the links of the text after the edit
+     */
+    public List<LinkSpan> update(CharSequence input, List<? extends LinkSpan> previousLinks, int offset,
+                                 int removedLength, int insertedLength) {
+        int regionBegin = regionBegin(input, offset);
+        int regionEnd = regionEnd(input, offset + insertedLength);
+        int lengthChange = insertedLength - removedLength;
+        int previousRegionEnd = regionEnd - lengthChange;
+
+        // Links before the region end before it (they can't contain the boundary at regionBegin - 1), links after it
+        // are the ones that start at or after its end in the previous text
+        int before = firstBeginningAtOrAfter(previousLinks, regionBegin);
+        int after = firstBeginningAtOrAfter(previousLinks, previousRegionEnd);
+
+        List<LinkSpan> links = new ArrayList<>(previousLinks.size() + 4);
+        links.addAll(previousLinks.subList(0, before));
+        int index = regionBegin;
+        long link;
+        while ((link = linkFinder.find(input, index, regionEnd, index)) != PackedLink.NONE) {
+            index = PackedLink.endIndex(link);
+            links.add(new LinkSpanImpl(PackedLink.type(link), PackedLink.beginIndex(link), index));
+        }
+        for (int i = after; i < previousLinks.size(); i++) {
+            LinkSpan previous = previousLinks.get(i);
+            if (lengthChange == 0) {
+                links.add(previous);
+            } else {
+                links.add(new LinkSpanImpl(previous.getType(), previous.getBeginIndex() + lengthChange,
+                        previous.getEndIndex() + lengthChange));
+            }
+        }
+        return links;
+    }
+
+    // After the last boundary character before the index, or the start of the input
+    private static int regionBegin(CharSequence input, int index) {
+        for (int i = index - 1; i >= 0; i--) {
+            if (Scanners.isBoundary(input.charAt(i))) {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    // After the first boundary character at or after the index, or the end of the input
+    private static int regionEnd(CharSequence input, int index) {
+        int length = input.length();
+        for (int i = index; i < length; i++) {
+            if (Scanners.isBoundary(input.charAt(i))) {
+                return i + 1;
+            }
+        }
+        return length;
+    }
+
+    private static int firstBeginningAtOrAfter(List<? extends LinkSpan> links, int index) {
+        int low = 0;
+        int high = links.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (links.get(mid).getBeginIndex() < index) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,21 @@
+package org.nibor.autolink.internal;
+
+/**
+ * Finds links in input text, see {@link TriggerLinkFinder} and {@link ForwardLinkFinder} for the implementations.
+ */
+public interface LinkFinder {
+
+    /**
+     * Find the next link in the input.
+     *
+     * @param input input text
+     * @param beginIndex the index to start looking for links at
+     * @param endIndex the index to stop looking for the start of links at (exclusive), either the length of the input
+     * or the index after a boundary character (see {@link Scanners#isBoundary}), so that no link extends past it
+     * @param rewindIndex the index that the start of a link can maximally be at, at most {@code beginIndex} (see
+     * {@link Scanner#scan})
+     * @return the first link found packed using {@link PackedLink}, or {@link PackedLink#NONE} if there's none up to
+     * {@code endIndex}
+     */
+    long find(CharSequence input, int beginIndex, int endIndex, int rewindIndex);
+}
@@ -0,0 +1,86 @@
+package org.nibor.autolink.internal;
+
+import org.nibor.autolink.LinkSpan;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator for the links in a range of the input, for streams of links.
+ * <p>
+ * Like with {@link ParallelExtractor}, the range is split after a boundary character (see {@link Scanners#isBoundary})
+ * so that each part can be scanned on its own with the same result. The number of links isn't known in advance, so
+ * the spliterator is not {@link #SIZED}; the length of the range is used as the estimate (there can't be more links
+ * than characters).
+ */
+public class LinkSpliterator implements Spliterator<LinkSpan> {
+
+    private final LinkFinder linkFinder;
+    private final CharSequence input;
+    private final int minSplitSize;
+    private int index;
+    private final int endIndex;
+
+    /**
+     * @param input the input, see {@link CharArraySequence#of}
+     * @param beginIndex the index to start at, 0 or after a boundary character
+     * @param endIndex the index to end at, the length of the input or after a boundary character
+     * @param minSplitSize the length that a range needs to have to be split
+     */
+    public LinkSpliterator(LinkFinder linkFinder, CharSequence input, int beginIndex, int endIndex,
+                           int minSplitSize) {
+        this.linkFinder = linkFinder;
+        this.input = input;
+        this.minSplitSize = minSplitSize;
+        this.index = beginIndex;
+        this.endIndex = endIndex;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super LinkSpan> action) {
+        long link = linkFinder.find(input, index, endIndex, index);
+        if (link == PackedLink.NONE) {
+            index = endIndex;
+            return false;
+        }
+        index = PackedLink.endIndex(link);
+        action.accept(new LinkSpanImpl(PackedLink.type(link), PackedLink.beginIndex(link), index));
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super LinkSpan> action) {
+        long link;
+        while ((link = linkFinder.find(input, index, endIndex, index)) != PackedLink.NONE) {
+            index = PackedLink.endIndex(link);
+            action.accept(new LinkSpanImpl(PackedLink.type(link), PackedLink.beginIndex(link), index));
+        }
+        index = endIndex;
+    }
+
+    @Override
+    public Spliterator<LinkSpan> trySplit() {
+        if (endIndex - index < minSplitSize) {
+            return null;
+        }
+        int middle = index + (endIndex - index) / 2;
+        for (int i = middle; i < endIndex - 1; i++) {
+            if (Scanners.isBoundary(input.charAt(i))) {
+                LinkSpliterator prefix = new LinkSpliterator(linkFinder, input, index, i + 1, minSplitSize);
+                index = i + 1;
+                return prefix;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return endIndex - index;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+}
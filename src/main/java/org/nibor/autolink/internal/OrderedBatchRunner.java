@@ -0,0 +1,86 @@
+package org.nibor.autolink.internal;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Runs tasks concurrently using an executor and completes them in the order they were submitted, on the submitting
+ * thread.
+ * <p>
+ * Each task fills a scratch object which is passed to its completion and then reused for a later task. At most
+ * {@code maxPending} tasks are submitted but not yet completed, so that's also the number of scratch objects. When
+ * the limit is reached, submitting waits for the oldest task and completes it first. So if completions are slow (e.g.
+ * a slow consumer of the results), no further tasks are submitted and results don't pile up.
+ * <p>
+ * Scratch objects belong to tasks rather than threads, which works the same with any executor, including one that
+ * starts a new (virtual) thread per task. Not thread-safe, tasks must be submitted from one thread.
+ */
+public class OrderedBatchRunner<T> {
+
+    private final Executor executor;
+    private final int maxPending;
+    private final Supplier<T> scratchFactory;
+
+    private final ArrayDeque<CompletableFuture<T>> pending = new ArrayDeque<>();
+    private final ArrayDeque<Consumer<T>> completions = new ArrayDeque<>();
+    private final ArrayDeque<T> free = new ArrayDeque<>();
+
+    public OrderedBatchRunner(Executor executor, int maxPending, Supplier<T> scratchFactory) {
+        if (maxPending <= 0) {
+            throw new IllegalArgumentException("maxPending must be positive");
+        }
+        this.executor = executor;
+        this.maxPending = maxPending;
+        this.scratchFactory = scratchFactory;
+    }
+
+    /**
+     * Submit a task, after completing the oldest pending task if there are too many.
+     *
+     * @param task fills the scratch object, runs using the executor
+     * @param completion called with the filled scratch object on the submitting thread, after the completions of all
+     * tasks submitted before
+     */
+    public void submit(Consumer<T> task, Consumer<T> completion) {
+        if (pending.size() == maxPending) {
+            completeOldest();
+        }
+        T scratch = free.isEmpty() ? scratchFactory.get() : free.pop();
+        pending.add(CompletableFuture.supplyAsync(() -> {
+            task.accept(scratch);
+            return scratch;
+        }, executor));
+        completions.add(completion);
+    }
+
+    /**
+     * Wait for all pending tasks and complete them in order.
+     */
+    public void finish() {
+        while (!pending.isEmpty()) {
+            completeOldest();
+        }
+    }
+
+    private void completeOldest() {
+        CompletableFuture<T> future = pending.poll();
+        Consumer<T> completion = completions.poll();
+        T scratch;
+        try {
+            scratch = future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            } else if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+        completion.accept(scratch);
+        free.push(scratch);
+    }
+}
@@ -0,0 +1,49 @@
+package org.nibor.autolink.internal;
+
+import org.nibor.autolink.LinkType;
+
+/**
+ * Helpers for links packed into a {@code long}, so that scanning doesn't have to allocate objects. The type ordinal is
+ * stored in the top 2 bits, followed by 31 bits each for the begin and end index.
+ */
+public final class PackedLink {
+
+    /**
+     * Value for no link. It can't be a valid link as there's no type with ordinal 3.
+     */
+    public static final long NONE = -1;
+
+    private static final LinkType[] TYPES = LinkType.values();
+    private static final long INDEX_MASK = 0x7FFF_FFFFL;
+
+    private PackedLink() {
+    }
+
+    public static long pack(LinkType type, int beginIndex, int endIndex) {
+        return ((long) type.ordinal() << 62) | ((long) beginIndex << 31) | endIndex;
+    }
+
+    /**
+     * Value for no link where the search for links continues at the index instead of after the trigger character, for
+     * skipping input that can't contain a link. Like {@link #NONE}, it uses type ordinal 3, but with a begin index of 0.
+     */
+    public static long skip(int index) {
+        return (3L << 62) | index;
+    }
+
+    public static boolean isSkip(long link) {
+        return link != NONE && (link >>> 62) == 3;
+    }
+
+    public static LinkType type(long link) {
+        return TYPES[(int) (link >>> 62)];
+    }
+
+    public static int beginIndex(long link) {
+        return (int) ((link >>> 31) & INDEX_MASK);
+    }
+
+    public static int endIndex(long link) {
+        return (int) (link & INDEX_MASK);
+    }
+}
@@ -0,0 +1,82 @@
+package org.nibor.autolink.internal;
+
+import org.nibor.autolink.LinkSpan;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Extracts links from a large input by splitting it into chunks that are scanned concurrently.
+ * <p>
+ * Chunks are split after a boundary character (see {@link Scanners#isBoundary}), which no scanner reads across. So
+ * each chunk can be scanned on its own, and the concatenated results are the same as scanning the whole input.
+ */
+public class ParallelExtractor {
+
+    private final LinkFinder linkFinder;
+    private final int chunkSize;
+
+    public ParallelExtractor(LinkFinder linkFinder, int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("chunkSize must be positive");
+        }
+        this.linkFinder = linkFinder;
+        this.chunkSize = chunkSize;
+    }
+
+    public List<LinkSpan> extract(final CharSequence input, Executor executor) {
+        List<CompletableFuture<List<LinkSpan>>> futures = new ArrayList<>();
+        int length = input.length();
+        int begin = 0;
+        while (begin < length) {
+            final int from = begin;
+            final int to = chunkEnd(input, (int) Math.min((long) begin + chunkSize, length));
+            if (from == 0 && to == length) {
+                // Not worth handing off
+                return findAll(input, from, to);
+            }
+            futures.add(CompletableFuture.supplyAsync(() -> findAll(input, from, to), executor));
+            begin = to;
+        }
+
+        List<LinkSpan> links = new ArrayList<>();
+        for (CompletableFuture<List<LinkSpan>> future : futures) {
+            try {
+                links.addAll(future.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                } else if (e.getCause() instanceof Error) {
+                    throw (Error) e.getCause();
+                }
+                throw e;
+            }
+        }
+        return links;
+    }
+
+    private List<LinkSpan> findAll(CharSequence input, int beginIndex, int endIndex) {
+        List<LinkSpan> links = new ArrayList<>();
+        int index = beginIndex;
+        long link;
+        while ((link = linkFinder.find(input, index, endIndex, index)) != PackedLink.NONE) {
+            index = PackedLink.endIndex(link);
+            links.add(new LinkSpanImpl(PackedLink.type(link), PackedLink.beginIndex(link), index));
+        }
+        return links;
+    }
+
+    // End the chunk after the first boundary character, starting with the one at the desired end
+    private static int chunkEnd(CharSequence input, int desiredEnd) {
+        int length = input.length();
+        for (int i = desiredEnd - 1; i < length; i++) {
+            if (Scanners.isBoundary(input.charAt(i))) {
+                return i + 1;
+            }
+        }
+        return length;
+    }
+}
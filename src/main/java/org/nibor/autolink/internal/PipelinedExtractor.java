@@ -0,0 +1,169 @@
+package org.nibor.autolink.internal;
+
+import org.nibor.autolink.ExtractedLink;
+import org.nibor.autolink.LinkExtractor;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+
+/**
+ * Extracts links from a reader with reading and scanning overlapped: a task on the executor reads (and so decodes,
+ * decompresses, etc.) into buffers, while the calling thread scans the buffers that have been filled so far.
+ * <p>
+ * There's a fixed number of buffers that are handed back and forth between the two, so memory stays flat and the
+ * reading task waits if scanning can't keep up. Scanning uses {@link StreamExtractor}, so links that cross buffers
+ * are found the same as when reading the whole input at once.
+ */
+public class PipelinedExtractor {
+
+    private final LinkExtractor linkExtractor;
+    private final int bufferSize;
+    private final int bufferCount;
+
+    public PipelinedExtractor(LinkExtractor linkExtractor, int bufferSize, int bufferCount) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize must be positive");
+        }
+        if (bufferCount <= 0) {
+            throw new IllegalArgumentException("bufferCount must be positive");
+        }
+        this.linkExtractor = linkExtractor;
+        this.bufferSize = bufferSize;
+        this.bufferCount = bufferCount;
+    }
+
+    /**
+     * Read all input from the reader and extract links from it. Doesn't close the reader, and the reader is not used
+     * by the reading task anymore when this returns (normally or with an exception).
+     */
+    public void extract(Reader reader, Executor executor, Consumer<? super ExtractedLink> consumer)
+            throws IOException {
+        BlockingQueue<Chunk> free = new ArrayBlockingQueue<>(bufferCount);
+        // One more for the end (or error) marker
+        BlockingQueue<Chunk> filled = new ArrayBlockingQueue<>(bufferCount + 1);
+        for (int i = 0; i < bufferCount; i++) {
+            free.add(new Chunk(new char[bufferSize]));
+        }
+        ReadTask readTask = new ReadTask(reader, free, filled);
+        CompletableFuture<Void> reading = CompletableFuture.runAsync(readTask, executor);
+
+        StreamExtractor streamExtractor = new StreamExtractor(linkExtractor, bufferSize, consumer);
+        boolean finished = false;
+        try {
+            while (true) {
+                Chunk chunk;
+                try {
+                    chunk = filled.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while waiting for input");
+                }
+                if (chunk.chars == null) {
+                    if (chunk.error != null) {
+                        throw rethrow(chunk.error);
+                    }
+                    break;
+                }
+                streamExtractor.write(chunk.chars, 0, chunk.length);
+                free.add(chunk);
+            }
+            streamExtractor.finish();
+            finished = true;
+        } finally {
+            if (!finished) {
+                // Wake up the read task in case it's waiting for a free buffer, it then sees that it should stop
+                readTask.stopped = true;
+                Chunk chunk;
+                while ((chunk = filled.poll()) != null) {
+                    if (chunk.chars != null) {
+                        free.offer(chunk);
+                    }
+                }
+                free.offer(new Chunk(new char[0]));
+            }
+            // Make sure the reader isn't used anymore after returning, e.g. when it's closed by the caller
+            reading.exceptionally(e -> null).join();
+        }
+    }
+
+    private static IOException rethrow(Throwable error) {
+        if (error instanceof IOException) {
+            return (IOException) error;
+        } else if (error instanceof RuntimeException) {
+            throw (RuntimeException) error;
+        } else if (error instanceof Error) {
+            throw (Error) error;
+        }
+        return new IOException(error);
+    }
+
+    private static class Chunk {
+
+        private final char[] chars;
+        private int length;
+        private final Throwable error;
+
+        Chunk(char[] chars) {
+            this.chars = chars;
+            this.error = null;
+        }
+
+        Chunk(Throwable error) {
+            this.chars = null;
+            this.error = error;
+        }
+    }
+
+    private static class ReadTask implements Runnable {
+
+        private final Reader reader;
+        private final BlockingQueue<Chunk> free;
+        private final BlockingQueue<Chunk> filled;
+
+        private volatile boolean stopped = false;
+
+        ReadTask(Reader reader, BlockingQueue<Chunk> free, BlockingQueue<Chunk> filled) {
+            this.reader = reader;
+            this.free = free;
+            this.filled = filled;
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!stopped) {
+                    Chunk chunk = free.take();
+                    if (stopped) {
+                        return;
+                    }
+                    // Fill the whole buffer (unless at the end) so that each handoff carries as much as possible
+                    int length = 0;
+                    int read = 0;
+                    while (length < chunk.chars.length && (read = reader.read(chunk.chars, length,
+                            chunk.chars.length - length)) != -1) {
+                        length += read;
+                    }
+                    if (length > 0) {
+                        chunk.length = length;
+                        filled.add(chunk);
+                    }
+                    if (read == -1) {
+                        filled.add(new Chunk((Throwable) null));
+                        return;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                filled.add(new Chunk(new InterruptedIOException("Interrupted while reading input")));
+            } catch (Throwable e) {
+                filled.add(new Chunk(e));
+            }
+        }
+    }
+}
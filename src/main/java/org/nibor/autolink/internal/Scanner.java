@@ -1,7 +1,19 @@
 package org.nibor.autolink.internal;
 
-import org.nibor.autolink.LinkSpan;
-
+/**
+ * Scans for a link around a trigger character.
+ * <p>
+ * Implementations must not read past a boundary character (see {@link Scanners#isBoundary}) in either direction, so
+ * that input can be processed in chunks that end after a boundary character.
+ * <p>
+ * To keep extraction linear in the length of the input, a scan must not walk over characters that a later scan of the
+ * same input walks over again. The scanners ensure this by stopping their walks at characters that would also stop a
+ * later walk: a backward walk stops at the previous trigger character of the same scanner (e.g. "@" can't be part of
+ * the local part of an email address), and a forward walk that doesn't end in a link only walks over characters that
+ * can't start one. Otherwise, input like "a@a@a@..." would be scanned again for every trigger character. If a link
+ * would be longer than the configured maximum, the scanner returns {@link PackedLink#skip} with the end of the link, so
+ * that scanning continues after it the same as if it had been found.
+ */
 public interface Scanner {
 
     /**
@@ -10,8 +22,9 @@ public interface Scanner {
      * @param rewindIndex the index that can maximally be rewound to (either the very first character of the input or
      * the character after the last matched link)
      * need to be set to be set here
-     * @return the matched link, or {@code null} if no link matched
+     * @return the matched link packed using {@link PackedLink}, {@link PackedLink#NONE} if no link matched, or
+     * {@link PackedLink#skip} if no link matched and the input up to the returned index can be skipped
      */
-    LinkSpan scan(CharSequence input, int triggerIndex, int rewindIndex);
+    long scan(CharSequence input, int triggerIndex, int rewindIndex);
 
 }
@@ -1,132 +1,200 @@
 package org.nibor.autolink.internal;
 
+/**
+ * Character classification and scanning shared by the scanners.
+ * <p>
+ * Characters are classified using a table, so that a character's class is a single array load (see
+ * {@link #charClass}). The table covers Latin-1; for the rest of the BMP only a few characters need special treatment,
+ * which are looked up in a small bit set.
+ */
 public class Scanners {
 
+    static final int ALPHA = 1;
+    static final int DIGIT = 1 << 1;
+    static final int NON_ASCII = 1 << 2;
+    // See "Atom" in RFC 5321, "atext" in RFC 5322
+    static final int LOCAL_ATOM = 1 << 3;
+    static final int SCHEME_SPECIAL = 1 << 4;
+    // Ends an URL, see findUrlEnd
+    static final int URL_END = 1 << 5;
+    // Needs special handling in an URL, see findUrlEnd
+    static final int URL_SPECIAL = 1 << 6;
+    static final int BOUNDARY = 1 << 7;
+
+    private static final int ALNUM = ALPHA | DIGIT;
+
+    private static final byte[] LATIN1 = new byte[256];
+    // Unicode spaces in the range U+2000 to U+207F that end URLs, see findUrlEnd
+    private static final long[] SPACES_2000 = new long[2];
+
+    static {
+        for (char c = 'A'; c <= 'Z'; c++) {
+            LATIN1[c] |= ALPHA | LOCAL_ATOM;
+        }
+        for (char c = 'a'; c <= 'z'; c++) {
+            LATIN1[c] |= ALPHA | LOCAL_ATOM;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            LATIN1[c] |= DIGIT | LOCAL_ATOM;
+        }
+        for (int c = 0x80; c <= 0xFF; c++) {
+            LATIN1[c] |= NON_ASCII | LOCAL_ATOM;
+        }
+        for (char c : "!#$%&'*+-/=?^_`{|}~".toCharArray()) {
+            LATIN1[c] |= LOCAL_ATOM;
+        }
+        for (char c : "+-.".toCharArray()) {
+            LATIN1[c] |= SCHEME_SPECIAL;
+        }
+
+        // The following can never be part of an URL, so stop. See RFC 3986 and RFC 3987.
+        // Some characters are not in the above list, even they are not in "unreserved" or "reserved":
+        //   '\\', '^', '{', '|', '}'
+        // The reason for this is that other link detectors also allow them. Also see findUrlEnd, we require
+        // the braces to be balanced.
+        for (int c = 0; c <= 0x1F; c++) {
+            LATIN1[c] |= URL_END;
+        }
+        // These are part of "fragment percent-encode set" which means they need to be
+        // percent-encoded in an URL: https://url.spec.whatwg.org/#fragment-percent-encode-set
+        for (char c : " \"<>`".toCharArray()) {
+            LATIN1[c] |= URL_END;
+        }
+        for (int c = 0x7F; c <= 0x9F; c++) {
+            LATIN1[c] |= URL_END;
+        }
+
+        // While these are allowed by RFC 3987, they are Unicode whitespace characters
+        // that look like a space, so it would be confusing not to end URLs.
+        // They are also excluded from IDNs by some browsers.
+        LATIN1['\u00A0'] |= URL_END; // no-break space
+        for (char c = '\u2000'; c <= '\u200A'; c++) {
+            // en quad, em quad, en space, em space, three-per-em space, four-per-em space, six-per-em space,
+            // figure space, punctuation space, thin space, hair space
+            addSpace2000(c);
+        }
+        addSpace2000('\u2028'); // line separator
+        addSpace2000('\u2029'); // paragraph separator
+        addSpace2000('\u202F'); // narrow no-break space
+        addSpace2000('\u205F'); // medium mathematical space
+        // '\u3000' (ideographic space) is checked in charClass
+
+        for (char c : "?!.,:;/()[]{}'".toCharArray()) {
+            LATIN1[c] |= URL_SPECIAL;
+        }
+
+        for (int c = 0; c <= ' '; c++) {
+            LATIN1[c] |= BOUNDARY;
+        }
+        for (char c : "\"<>\u007F".toCharArray()) {
+            LATIN1[c] |= BOUNDARY;
+        }
+    }
+
+    private static void addSpace2000(char c) {
+        SPACES_2000[(c >> 6) & 1] |= 1L << (c & 63);
+    }
+
+    /**
+     * @return the class of the character, a combination of the flags in this class
+     */
+    static int charClass(char c) {
+        if (c < 256) {
+            return LATIN1[c];
+        }
+        if (((c & 0xFF80) == 0x2000 && (SPACES_2000[(c >> 6) & 1] & (1L << (c & 63))) != 0) || c == '\u3000') {
+            return NON_ASCII | LOCAL_ATOM | URL_END;
+        }
+        return NON_ASCII | LOCAL_ATOM;
+    }
+
     public static boolean isAlpha(char c) {
-        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+        return (charClass(c) & ALPHA) != 0;
     }
 
     public static boolean isDigit(char c) {
-        return c >= '0' && c <= '9';
+        return (charClass(c) & DIGIT) != 0;
     }
 
     public static boolean isAlnum(char c) {
-        return isAlpha(c) || isDigit(c);
+        return (charClass(c) & ALNUM) != 0;
     }
 
     public static boolean isNonAscii(char c) {
         return c >= 0x80;
     }
 
+    /**
+     * Whether the character is allowed in the local part of an email address (other than the dot).
+     */
+    public static boolean isLocalAtom(char c) {
+        return (charClass(c) & LOCAL_ATOM) != 0;
+    }
+
+    /**
+     * Whether the character is allowed in a sub-domain of an email address (other than the hyphen).
+     */
+    public static boolean isSubDomain(char c) {
+        return (charClass(c) & (ALNUM | NON_ASCII)) != 0;
+    }
+
+    /**
+     * Whether the character is allowed in a scheme in addition to letters and digits.
+     */
+    public static boolean isSchemeSpecial(char c) {
+        return (charClass(c) & SCHEME_SPECIAL) != 0;
+    }
+
+    /**
+     * Whether the character is a boundary that no scanner reads across, neither backwards nor forwards. This means
+     * that input can be split after such a character and the parts can be scanned separately, with the same result
+     * as scanning the whole input.
+     */
+    public static boolean isBoundary(char c) {
+        return (charClass(c) & BOUNDARY) != 0;
+    }
+
+    /**
+     * Whether the text from beginIndex (inclusive) to endIndex (exclusive) is longer than maxLength characters. For
+     * UTF-8 input ({@link Utf8CharSequence}) the indexes are byte offsets, but what counts is the number of chars that
+     * the text decodes to, so that the limits are the same as for the decoded input.
+     */
+    static boolean isLonger(CharSequence input, int beginIndex, int endIndex, int maxLength) {
+        int length = endIndex - beginIndex;
+        if (length <= maxLength || !(input instanceof Utf8CharSequence)) {
+            return length > maxLength;
+        }
+        // No need to count when even 3 bytes per char (the most there can be) are too many
+        return length / 3L >= maxLength + 1L ||
+                ((Utf8CharSequence) input).utf16Length(beginIndex, endIndex) > maxLength;
+    }
+
+    /**
+     * @return the index before which a link that ends at endIndex is longer than maxLength characters for sure (see
+     * {@link #isLonger} for the exact check, which is needed for UTF-8 input)
+     */
+    static int minBeginIndex(CharSequence input, int endIndex, int maxLength) {
+        long bytes = input instanceof Utf8CharSequence ? 3L * maxLength : maxLength;
+        return (int) Math.max(endIndex - bytes, -1);
+    }
+
     public static int findUrlEnd(CharSequence input, int beginIndex) {
         int round = 0;
         int square = 0;
         int curly = 0;
-        boolean doubleQuote = false;
         boolean singleQuote = false;
         int last = -1;
         loop:
         for (int i = beginIndex; i < input.length(); i++) {
             char c = input.charAt(i);
+            int charClass = charClass(c);
+            if ((charClass & (URL_END | URL_SPECIAL)) == 0) {
+                last = i;
+                continue;
+            } else if ((charClass & URL_END) != 0) {
+                break;
+            }
             switch (c) {
-                case '\u0000':
-                case '\u0001':
-                case '\u0002':
-                case '\u0003':
-                case '\u0004':
-                case '\u0005':
-                case '\u0006':
-                case '\u0007':
-                case '\u0008':
-                case '\t':
-                case '\n':
-                case '\u000B':
-                case '\f':
-                case '\r':
-                case '\u000E':
-                case '\u000F':
-                case '\u0010':
-                case '\u0011':
-                case '\u0012':
-                case '\u0013':
-                case '\u0014':
-                case '\u0015':
-                case '\u0016':
-                case '\u0017':
-                case '\u0018':
-                case '\u0019':
-                case '\u001A':
-                case '\u001B':
-                case '\u001C':
-                case '\u001D':
-                case '\u001E':
-                case '\u001F':
-                // These are part of "fragment percent-encode set" which means they need to be
-                // percent-encoded in an URL: https://url.spec.whatwg.org/#fragment-percent-encode-set
-                case ' ':
-                case '\"':
-                case '<':
-                case '>':
-                case '`':
-                case '\u007F':
-                case '\u0080':
-                case '\u0081':
-                case '\u0082':
-                case '\u0083':
-                case '\u0084':
-                case '\u0085':
-                case '\u0086':
-                case '\u0087':
-                case '\u0088':
-                case '\u0089':
-                case '\u008A':
-                case '\u008B':
-                case '\u008C':
-                case '\u008D':
-                case '\u008E':
-                case '\u008F':
-                case '\u0090':
-                case '\u0091':
-                case '\u0092':
-                case '\u0093':
-                case '\u0094':
-                case '\u0095':
-                case '\u0096':
-                case '\u0097':
-                case '\u0098':
-                case '\u0099':
-                case '\u009A':
-                case '\u009B':
-                case '\u009C':
-                case '\u009D':
-                case '\u009E':
-                case '\u009F':
-                    // The above can never be part of an URL, so stop now. See RFC 3986 and RFC 3987.
-                    // Some characters are not in the above list, even they are not in "unreserved" or "reserved":
-                    //   '\\', '^', '{', '|', '}'
-                    // The reason for this is that other link detectors also allow them. Also see below, we require
-                    // the braces to be balanced.
-                case '\u00A0': // no-break space
-                case '\u2000': // en quad
-                case '\u2001': // em quad
-                case '\u2002': // en space
-                case '\u2003': // em space
-                case '\u2004': // three-per-em space
-                case '\u2005': // four-per-em space
-                case '\u2006': // six-per-em space
-                case '\u2007': // figure space
-                case '\u2008': // punctuation space
-                case '\u2009': // thin space
-                case '\u200A': // hair space
-                case '\u2028': // line separator
-                case '\u2029': // paragraph separator
-                case '\u202F': // narrow no-break space
-                case '\u205F': // medium mathematical space
-                case '\u3000': // ideographic space
-                    // While these are allowed by RFC 3987, they are Unicode whitespace characters
-                    // that look like a space, so it would be confusing not to end URLs.
-                    // They are also excluded from IDNs by some browsers.
-                    break loop;
                 case '?':
                 case '!':
                 case '.':
@@ -185,8 +253,6 @@ public class Scanners {
                         last = i;
                     }
                     break;
-                default:
-                    last = i;
             }
         }
         return last;
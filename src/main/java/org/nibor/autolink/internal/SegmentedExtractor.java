@@ -0,0 +1,110 @@
+package org.nibor.autolink.internal;
+
+import org.nibor.autolink.LinkConsumer;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Extracts links from text that is stored as a list of segments, as if the segments were concatenated.
+ * <p>
+ * Most of each segment is scanned in place: the part from after the first to after the last boundary character (see
+ * {@link Scanners#isBoundary}) can't contain a link that extends into another segment. Only the text around a join,
+ * from after the last boundary character of one segment to after the first one of a later segment, is copied into a
+ * buffer and scanned there. So no segment needs to be looked up while scanning, and the scanners only see the usual
+ * input types (see {@link CharArraySequence#of}).
+ */
+public class SegmentedExtractor {
+
+    private final LinkFinder linkFinder;
+
+    // Text since the last boundary character that continues in the next segment, starting at carryBegin
+    private char[] carry = new char[64];
+    private int carryLength = 0;
+    private int carryBegin = 0;
+    // View of the whole carry array. The text before a join is scanned using this, which is fine as it ends after a
+    // boundary character, so nothing after it in the array is read.
+    private CharArraySequence carryView = new CharArraySequence(carry, 0, carry.length);
+
+    public SegmentedExtractor(LinkFinder linkFinder) {
+        this.linkFinder = linkFinder;
+    }
+
+    public void extract(List<? extends CharSequence> segments, LinkConsumer consumer) {
+        int offset = 0;
+        for (CharSequence s : segments) {
+            CharSequence segment = CharArraySequence.of(s);
+            int length = segment.length();
+            int begin = 0;
+            if (carryLength > 0) {
+                int end = firstBoundaryEnd(segment);
+                appendCarry(segment, 0, end);
+                if (end == length) {
+                    offset += length;
+                    continue;
+                }
+                findAll(carryView, 0, carryLength, carryBegin, consumer);
+                carryLength = 0;
+                begin = end;
+            }
+            int end = lastBoundaryEnd(segment, begin);
+            findAll(segment, begin, end, offset, consumer);
+            if (end < length) {
+                carryBegin = offset + end;
+                appendCarry(segment, end, length);
+            }
+            offset += length;
+        }
+        if (carryLength > 0) {
+            // Doesn't end with a boundary character, so the input must end here
+            findAll(new CharArraySequence(carry, 0, carryLength), 0, carryLength, carryBegin, consumer);
+            carryLength = 0;
+        }
+    }
+
+    private void findAll(CharSequence input, int beginIndex, int endIndex, int offset, LinkConsumer consumer) {
+        int index = beginIndex;
+        long link;
+        while ((link = linkFinder.find(input, index, endIndex, index)) != PackedLink.NONE) {
+            index = PackedLink.endIndex(link);
+            consumer.accept(PackedLink.type(link), offset + PackedLink.beginIndex(link), offset + index);
+        }
+    }
+
+    private void appendCarry(CharSequence segment, int beginIndex, int endIndex) {
+        int count = endIndex - beginIndex;
+        if (carryLength + count > carry.length) {
+            carry = Arrays.copyOf(carry, Math.max(carryLength + count, carry.length * 2));
+            carryView = new CharArraySequence(carry, 0, carry.length);
+        }
+        if (segment instanceof String) {
+            ((String) segment).getChars(beginIndex, endIndex, carry, carryLength);
+        } else {
+            for (int i = beginIndex; i < endIndex; i++) {
+                carry[carryLength + i - beginIndex] = segment.charAt(i);
+            }
+        }
+        carryLength += count;
+    }
+
+    // Index after the first boundary character, or the length if there's none
+    private static int firstBoundaryEnd(CharSequence segment) {
+        int length = segment.length();
+        for (int i = 0; i < length; i++) {
+            if (Scanners.isBoundary(segment.charAt(i))) {
+                return i + 1;
+            }
+        }
+        return length;
+    }
+
+    // Index after the last boundary character at or after beginIndex, or beginIndex if there's none
+    private static int lastBoundaryEnd(CharSequence segment, int beginIndex) {
+        for (int i = segment.length() - 1; i >= beginIndex; i--) {
+            if (Scanners.isBoundary(segment.charAt(i))) {
+                return i + 1;
+            }
+        }
+        return beginIndex;
+    }
+}
@@ -0,0 +1,145 @@
+package org.nibor.autolink.internal;
+
+import org.nibor.autolink.ExtractedLink;
+import org.nibor.autolink.LinkExtractor;
+import org.nibor.autolink.LinkSpan;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.function.Consumer;
+
+/**
+ * Extracts links from input that arrives in chunks, using a buffer of fixed size.
+ * <p>
+ * Only the part of the buffer up to and including the last boundary character (see {@link Scanners#isBoundary}) is
+ * scanned, the rest is carried over until more input arrives. That way links that cross chunks are found the same as
+ * when scanning the whole input at once. The buffer only grows if there's a run of text without any boundary
+ * characters that is longer than the buffer.
+ */
+public class StreamExtractor {
+
+    private final LinkExtractor linkExtractor;
+    private final Consumer<? super ExtractedLink> consumer;
+
+    private char[] buffer;
+    private int length = 0;
+    // Number of characters at the start of the buffer that are known to not contain a boundary character
+    private int carried = 0;
+    // Offset in the whole stream of the first character in the buffer
+    private long offset = 0;
+
+    public StreamExtractor(LinkExtractor linkExtractor, int bufferSize, Consumer<? super ExtractedLink> consumer) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize must be positive");
+        }
+        this.linkExtractor = linkExtractor;
+        this.consumer = consumer;
+        this.buffer = new char[bufferSize];
+    }
+
+    /**
+     * Read all input from the reader and extract links from it. Doesn't close the reader.
+     */
+    public void read(Reader reader) throws IOException {
+        int read;
+        while ((read = reader.read(buffer, length, buffer.length - length)) != -1) {
+            length += read;
+            if (length == buffer.length) {
+                process(false);
+            }
+        }
+        finish();
+    }
+
+    /**
+     * Add the next chunk of input.
+     */
+    public void write(CharSequence chunk) {
+        int index = 0;
+        int chunkLength = chunk.length();
+        while (index < chunkLength) {
+            int count = Math.min(chunkLength - index, buffer.length - length);
+            for (int i = 0; i < count; i++) {
+                buffer[length + i] = chunk.charAt(index + i);
+            }
+            length += count;
+            index += count;
+            if (length == buffer.length) {
+                process(false);
+            }
+        }
+    }
+
+    /**
+     * Add the next chunk of input from a char array. The array is not used after this returns, so it can be reused for
+     * the next chunk.
+     */
+    public void write(char[] chunk, int offset, int count) {
+        int index = offset;
+        int end = offset + count;
+        while (index < end) {
+            int n = Math.min(end - index, buffer.length - length);
+            System.arraycopy(chunk, index, buffer, length, n);
+            length += n;
+            index += n;
+            if (length == buffer.length) {
+                process(false);
+            }
+        }
+    }
+
+    /**
+     * Extract links from the input written so far, up to the last boundary character. Use this to get links without
+     * waiting for the buffer to fill up, e.g. when chunks arrive slowly.
+     */
+    public void flush() {
+        if (length > carried) {
+            process(false);
+        }
+    }
+
+    /**
+     * Signal the end of input, extracting links from what is left in the buffer.
+     */
+    public void finish() {
+        process(true);
+    }
+
+    /**
+     * @return offset in the whole stream up to which input has been scanned
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    private void process(boolean endOfInput) {
+        int safeEnd = endOfInput ? length : lastBoundary() + 1;
+        if (safeEnd > 0) {
+            CharSequence input = new CharArraySequence(buffer, 0, safeEnd);
+            for (LinkSpan link : linkExtractor.extractLinks(input)) {
+                int begin = link.getBeginIndex();
+                int end = link.getEndIndex();
+                String text = new String(buffer, begin, end - begin);
+                consumer.accept(new ExtractedLinkImpl(link.getType(), offset + begin, offset + end, text));
+            }
+            System.arraycopy(buffer, safeEnd, buffer, 0, length - safeEnd);
+            length -= safeEnd;
+            offset += safeEnd;
+        }
+        carried = length;
+        if (length == buffer.length) {
+            char[] grown = new char[buffer.length * 2];
+            System.arraycopy(buffer, 0, grown, 0, length);
+            buffer = grown;
+        }
+    }
+
+    private int lastBoundary() {
+        for (int i = length - 1; i >= carried; i--) {
+            if (Scanners.isBoundary(buffer[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,105 @@
+package org.nibor.autolink.internal;
+
+import org.nibor.autolink.ExtractedLink;
+import org.nibor.autolink.LinkExtractor;
+import org.nibor.autolink.LinkSpan;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.function.Consumer;
+
+/**
+ * Extracts links from the bytes that were appended to a UTF-8 encoded file since the last call.
+ * <p>
+ * The file may still be written to, so the bytes after the last boundary character (see {@link Scanners#isBoundary})
+ * are held back: they could be the start of a link that isn't complete yet. The returned position is after the last
+ * boundary, so the next call starts there and sees the whole link. Like with {@link FileExtractor}, the bytes are
+ * scanned without decoding them first.
+ */
+public class TailExtractor {
+
+    // The largest array that can be allocated on common JVMs
+    private static final int MAX_BUFFER_SIZE = Integer.MAX_VALUE - 8;
+
+    private final LinkExtractor linkExtractor;
+    private final int maxBufferSize;
+    private byte[] buffer;
+
+    public TailExtractor(LinkExtractor linkExtractor, int bufferSize) {
+        this(linkExtractor, bufferSize, MAX_BUFFER_SIZE);
+    }
+
+    /**
+     * @param maxBufferSize the size up to which the buffer grows to hold text without boundary characters, at least
+     * the buffer size and at most {@code Integer.MAX_VALUE - 8}
+     */
+    public TailExtractor(LinkExtractor linkExtractor, int bufferSize, int maxBufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("bufferSize must be positive");
+        }
+        if (maxBufferSize < bufferSize || maxBufferSize > MAX_BUFFER_SIZE) {
+            throw new IllegalArgumentException("maxBufferSize must be between bufferSize and " + MAX_BUFFER_SIZE);
+        }
+        this.linkExtractor = linkExtractor;
+        this.maxBufferSize = maxBufferSize;
+        this.buffer = new byte[bufferSize];
+    }
+
+    /**
+     * Extract links from the file from the position to its current size.
+     *
+     * @param position the position to start at, 0 or after a boundary character
+     * @return the position up to which the file was scanned, after the last boundary character; the bytes after it
+     * were not scanned yet
+     */
+    public long extract(FileChannel channel, long position, Consumer<? super ExtractedLink> consumer)
+            throws IOException {
+        long size = channel.size();
+        // Number of bytes in the buffer, starting at position. Bytes that are carried over don't contain a boundary.
+        int length = 0;
+        while (position + length < size) {
+            if (length == buffer.length) {
+                if (buffer.length == maxBufferSize) {
+                    // Can't hold more without a boundary, leave it for when the file is complete
+                    break;
+                }
+                byte[] grown = new byte[(int) Math.min(buffer.length * 2L, maxBufferSize)];
+                System.arraycopy(buffer, 0, grown, 0, length);
+                buffer = grown;
+            }
+            int toRead = (int) Math.min(buffer.length - length, size - position - length);
+            int read = channel.read(ByteBuffer.wrap(buffer, length, toRead), position + length);
+            if (read <= 0) {
+                // Truncated in the meantime
+                break;
+            }
+            int scanned = length;
+            length += read;
+            int safeEnd = lastBoundary(scanned, length) + 1;
+            if (safeEnd > 0) {
+                Utf8CharSequence input = new Utf8CharSequence(buffer, 0, safeEnd);
+                for (LinkSpan link : linkExtractor.extractLinks(input)) {
+                    int begin = link.getBeginIndex();
+                    int end = link.getEndIndex();
+                    consumer.accept(new ExtractedLinkImpl(link.getType(), position + begin, position + end,
+                            input.decode(begin, end)));
+                }
+                System.arraycopy(buffer, safeEnd, buffer, 0, length - safeEnd);
+                length -= safeEnd;
+                position += safeEnd;
+            }
+        }
+        return position;
+    }
+
+    private int lastBoundary(int beginIndex, int endIndex) {
+        for (int i = endIndex - 1; i >= beginIndex; i--) {
+            // Boundary characters are ASCII, so they can't be part of a multi-byte sequence in UTF-8
+            if (Scanners.isBoundary((char) (buffer[i] & 0xFF))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
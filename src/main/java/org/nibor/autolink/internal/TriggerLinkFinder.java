@@ -0,0 +1,63 @@
+package org.nibor.autolink.internal;
+
+import java.util.Arrays;
+
+/**
+ * Finds links by looking for trigger characters and running the matching scanner, which walks back from the trigger
+ * to find the start of the link and forward to find the end.
+ */
+public class TriggerLinkFinder implements LinkFinder {
+
+    // Scanner by trigger character, only for enabled link types
+    private final Scanner[] triggers = new Scanner[128];
+    // Trigger characters repeated in each byte of a long, for searching UTF-8 input a word at a time
+    private final long[] triggerPatterns;
+
+    public TriggerLinkFinder(UrlScanner urlScanner, WwwScanner wwwScanner, EmailScanner emailScanner) {
+        triggers[':'] = urlScanner;
+        triggers['@'] = emailScanner;
+        triggers['w'] = wwwScanner;
+
+        int count = 0;
+        long[] patterns = new long[3];
+        for (char c = 0; c < triggers.length; c++) {
+            if (triggers[c] != null) {
+                patterns[count++] = Utf8CharSequence.pattern((byte) c);
+            }
+        }
+        triggerPatterns = Arrays.copyOf(patterns, count);
+    }
+
+    @Override
+    public long find(CharSequence input, int beginIndex, int endIndex, int rewindIndex) {
+        int index = beginIndex;
+        int rewind = rewindIndex;
+        while ((index = nextTrigger(input, index, endIndex)) < endIndex) {
+            Scanner scanner = triggers[input.charAt(index)];
+            long link = scanner.scan(input, index, rewind);
+            if (link == PackedLink.NONE) {
+                index++;
+            } else if (PackedLink.isSkip(link)) {
+                index = PackedLink.endIndex(link);
+                rewind = index;
+            } else {
+                return link;
+            }
+        }
+        return PackedLink.NONE;
+    }
+
+    // Index of the next trigger character of an enabled link type, or endIndex if there's none
+    private int nextTrigger(CharSequence input, int beginIndex, int endIndex) {
+        if (input instanceof Utf8CharSequence) {
+            return ((Utf8CharSequence) input).indexOfAny(triggerPatterns, beginIndex, endIndex);
+        }
+        for (int i = beginIndex; i < endIndex; i++) {
+            char c = input.charAt(i);
+            if (c < 128 && triggers[c] != null) {
+                return i;
+            }
+        }
+        return endIndex;
+    }
+}
@@ -1,6 +1,5 @@
 package org.nibor.autolink.internal;
 
-import org.nibor.autolink.LinkSpan;
 import org.nibor.autolink.LinkType;
 
 /**
@@ -10,38 +9,63 @@ import org.nibor.autolink.LinkType;
  */
 public class UrlScanner implements Scanner {
 
+    private final int maxLength;
+    private final int maxLookbehind;
+
+    public UrlScanner() {
+        this(Integer.MAX_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param maxLength the maximum length of a URL, see {@link org.nibor.autolink.LinkExtractor.Builder#maxLinkLength}
+     * @param maxLookbehind the maximum length of a scheme, see
+     * {@link org.nibor.autolink.LinkExtractor.Builder#maxLookbehind}
+     */
+    public UrlScanner(int maxLength, int maxLookbehind) {
+        this.maxLength = maxLength;
+        this.maxLookbehind = maxLookbehind;
+    }
+
     @Override
-    public LinkSpan scan(CharSequence input, int triggerIndex, int rewindIndex) {
+    public long scan(CharSequence input, int triggerIndex, int rewindIndex) {
         int length = input.length();
         int afterSlashSlash = triggerIndex + 3;
         if (afterSlashSlash >= length || input.charAt(triggerIndex + 1) != '/' || input.charAt(triggerIndex + 2) != '/') {
-            return null;
+            return PackedLink.NONE;
         }
 
-        int first = findFirst(input, triggerIndex - 1, rewindIndex);
+        // The scheme is ASCII, so its length is the same for UTF-8 input
+        int first = findFirst(input, triggerIndex - 1, rewindIndex, triggerIndex - maxLookbehind);
         if (first == -1) {
-            return null;
+            return PackedLink.NONE;
         }
 
         int last = Scanners.findUrlEnd(input, afterSlashSlash);
         if (last == -1) {
-            return null;
+            return PackedLink.NONE;
+        } else if (Scanners.isLonger(input, first, last + 1, maxLength)) {
+            // Too long, continue after it (instead of after the trigger) so that no link is found within it
+            return PackedLink.skip(last + 1);
         }
 
-        return new LinkSpanImpl(LinkType.URL, first, last + 1);
+        return PackedLink.pack(LinkType.URL, first, last + 1);
     }
 
     // See "scheme" in RFC 3986
-    private int findFirst(CharSequence input, int beginIndex, int rewindIndex) {
+    private int findFirst(CharSequence input, int beginIndex, int rewindIndex, int limitIndex) {
         int first = -1;
         int digit = -1;
         for (int i = beginIndex; i >= rewindIndex; i--) {
             char c = input.charAt(i);
             if (Scanners.isAlpha(c)) {
+                if (i < limitIndex) {
+                    // Scheme is too long. Only letters count, as the scheme starts with one ("-https://" is fine).
+                    return -1;
+                }
                 first = i;
             } else if (Scanners.isDigit(c)) {
                 digit = i;
-            } else if (!schemeSpecial(c)) {
+            } else if (!Scanners.isSchemeSpecial(c)) {
                 break;
             }
         }
@@ -52,14 +76,4 @@ public class UrlScanner implements Scanner {
         }
         return first;
     }
-
-    private static boolean schemeSpecial(char c) {
-        switch (c) {
-            case '+':
-            case '-':
-            case '.':
-                return true;
-        }
-        return false;
-    }
 }
@@ -0,0 +1,240 @@
+package org.nibor.autolink.internal;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * View of UTF-8 encoded bytes as a sequence with one "character" per byte, so that the scanners can run on the bytes
+ * without decoding them first, and the resulting indexes are byte offsets.
+ * <p>
+ * ASCII bytes are returned as is. The scanners only treat a few non-ASCII characters specially (the ones that end
+ * URLs, see {@link Scanners#findUrlEnd}), so for a lead byte the character is decoded when it can be one of those,
+ * otherwise {@link #OTHER} is returned. Continuation bytes are also returned as {@link #OTHER}. As no special
+ * character ever starts with a continuation byte, the scanners start and end links on whole characters.
+ */
+public class Utf8CharSequence implements CharSequence {
+
+    /**
+     * A non-ASCII character that the scanners don't treat specially, used for all bytes of other characters.
+     */
+    public static final char OTHER = '\u00FF';
+
+    private static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGHS = 0x8080808080808080L;
+
+    private final byte[] array;
+    private final ByteBuffer buffer;
+    private final int offset;
+    private final int length;
+
+    public Utf8CharSequence(byte[] array, int offset, int length) {
+        this.array = array;
+        this.buffer = null;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * View of the buffer from its position to its limit. The position of the buffer is not changed.
+     */
+    public Utf8CharSequence(ByteBuffer buffer) {
+        if (buffer.hasArray()) {
+            this.array = buffer.array();
+            this.buffer = null;
+            this.offset = buffer.arrayOffset() + buffer.position();
+        } else {
+            this.array = null;
+            this.buffer = buffer;
+            this.offset = buffer.position();
+        }
+        this.length = buffer.remaining();
+    }
+
+    @Override
+    public int length() {
+        return length;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("index " + index + ", length " + length);
+        }
+        int b = getByte(index);
+        if (b < 0x80) {
+            return (char) b;
+        }
+        switch (b) {
+            case 0xC2:
+                // U+0080 to U+00BF, includes C1 controls and no-break space
+                if (index + 1 < length) {
+                    int b1 = getByte(index + 1);
+                    if ((b1 & 0xC0) == 0x80) {
+                        return (char) (((b & 0x1F) << 6) | (b1 & 0x3F));
+                    }
+                }
+                return OTHER;
+            case 0xE2:
+            case 0xE3:
+                // U+2000 to U+3FFF, includes general punctuation spaces and ideographic space
+                if (index + 2 < length) {
+                    int b1 = getByte(index + 1);
+                    int b2 = getByte(index + 2);
+                    if ((b1 & 0xC0) == 0x80 && (b2 & 0xC0) == 0x80) {
+                        return (char) (((b & 0x0F) << 12) | ((b1 & 0x3F) << 6) | (b2 & 0x3F));
+                    }
+                }
+                return OTHER;
+            default:
+                return OTHER;
+        }
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length || start > end) {
+            throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length);
+        }
+        return new Utf8CharSequence(bytes(start, end), 0, end - start);
+    }
+
+    /**
+     * @return the bytes decoded to a string
+     */
+    @Override
+    public String toString() {
+        return decode(0, length);
+    }
+
+    /**
+     * @return the bytes from start (inclusive) to end (exclusive) decoded to a string
+     */
+    public String decode(int start, int end) {
+        if (array != null) {
+            return new String(array, offset + start, end - start, StandardCharsets.UTF_8);
+        } else {
+            return new String(bytes(start, end), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * @return a pattern for {@link #indexOfAny} that searches for the ASCII character
+     */
+    public static long pattern(byte ascii) {
+        return (ascii & 0xFF) * ONES;
+    }
+
+    /**
+     * Find the first index of any of the ASCII characters. Searches 8 bytes at a time, which is a lot faster than
+     * checking each byte if the characters are rare. ASCII bytes can't be part of multi-byte sequences in UTF-8, so
+     * each match is the whole character.
+     *
+     * @param patterns the characters to search for, see {@link #pattern}
+     * @param beginIndex the index to start searching at
+     * @param endIndex the index to stop searching at (exclusive)
+     * @return the first index with one of the characters, or {@code endIndex} if there is none
+     */
+    public int indexOfAny(long[] patterns, int beginIndex, int endIndex) {
+        int i = beginIndex;
+        while (i + 8 <= endIndex) {
+            long word = array != null ? (long) LONGS.get(array, offset + i) : buffer.getLong(offset + i);
+            if (containsAny(word, patterns)) {
+                break;
+            }
+            i += 8;
+        }
+        for (; i < endIndex; i++) {
+            long b = getByte(i);
+            for (long pattern : patterns) {
+                if (b == (pattern & 0xFF)) {
+                    return i;
+                }
+            }
+        }
+        return endIndex;
+    }
+
+    // See "Determine if a word has a byte equal to n" in Bit Twiddling Hacks
+    private static boolean containsAny(long word, long[] patterns) {
+        for (long pattern : patterns) {
+            long x = word ^ pattern;
+            if (((x - ONES) & ~x & HIGHS) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the number of UTF-16 code units (chars) that the bytes from start (inclusive) to end (exclusive)
+     * decode to, the same as the length of {@link #decode}: like with the UTF-8 decoder, each maximal subpart of an
+     * invalid sequence (see "U+FFFD Substitution of Maximal Subparts" in the Unicode standard) is replaced by one
+     * U+FFFD, except that the decoder replaces an encoded surrogate as a whole
+     */
+    public int utf16Length(int start, int end) {
+        int count = 0;
+        int i = start;
+        while (i < end) {
+            int b = getByte(i);
+            i++;
+            // The number of continuation bytes that a lead byte needs, and the range of the first one (to exclude
+            // overlong encodings and code points above U+10FFFF)
+            int needed;
+            int lower = 0x80;
+            int upper = 0xBF;
+            if (b >= 0xC2 && b <= 0xDF) {
+                needed = 1;
+            } else if (b >= 0xE0 && b <= 0xEF) {
+                needed = 2;
+                if (b == 0xE0) {
+                    lower = 0xA0;
+                }
+            } else if (b >= 0xF0 && b <= 0xF4) {
+                needed = 3;
+                if (b == 0xF0) {
+                    lower = 0x90;
+                } else if (b == 0xF4) {
+                    upper = 0x8F;
+                }
+            } else {
+                // ASCII, or a byte that can't start a sequence (continuation byte, C0, C1, F5 to FF)
+                count++;
+                continue;
+            }
+            int continuations = 0;
+            while (continuations < needed && i < end) {
+                int c = getByte(i);
+                if (c < lower || c > upper) {
+                    break;
+                }
+                lower = 0x80;
+                upper = 0xBF;
+                continuations++;
+                i++;
+            }
+            // A complete 4 byte sequence needs a surrogate pair, otherwise it's one char (or one U+FFFD)
+            count += continuations == 3 ? 2 : 1;
+        }
+        return count;
+    }
+
+    private byte[] bytes(int start, int end) {
+        byte[] bytes = new byte[end - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) getByte(start + i);
+        }
+        return bytes;
+    }
+
+    private int getByte(int index) {
+        if (array != null) {
+            return array[offset + index] & 0xFF;
+        } else {
+            return buffer.get(offset + index) & 0xFF;
+        }
+    }
+}
@@ -1,6 +1,5 @@
 package org.nibor.autolink.internal;
 
-import org.nibor.autolink.LinkSpan;
 import org.nibor.autolink.LinkType;
 
 /**
@@ -11,24 +10,40 @@ import org.nibor.autolink.LinkType;
  */
 public class WwwScanner implements Scanner {
 
+    private final int maxLength;
+
+    public WwwScanner() {
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param maxLength the maximum length of a link, see {@link org.nibor.autolink.LinkExtractor.Builder#maxLinkLength}
+     */
+    public WwwScanner(int maxLength) {
+        this.maxLength = maxLength;
+    }
+
     @Override
-    public LinkSpan scan(final CharSequence input, int triggerIndex, int rewindIndex) {
+    public long scan(final CharSequence input, int triggerIndex, int rewindIndex) {
         final int afterDot = triggerIndex + 4;
         if (afterDot >= input.length() || !isWww(input, triggerIndex)) {
-            return null;
+            return PackedLink.NONE;
         }
 
         final int first = findFirst(input, triggerIndex, rewindIndex);
         if (first == -1) {
-            return null;
+            return PackedLink.NONE;
         }
 
         int last = findLast(input, afterDot);
         if (last == -1) {
-            return null;
+            return PackedLink.NONE;
+        } else if (Scanners.isLonger(input, first, last + 1, maxLength)) {
+            // Too long, continue after it (instead of after the trigger) so that no link is found within it
+            return PackedLink.skip(last + 1);
         }
 
-        return new LinkSpanImpl(LinkType.WWW, first, last + 1);
+        return PackedLink.pack(LinkType.WWW, first, last + 1);
     }
 
     private static int findFirst(final CharSequence input, final int beginIndex, final int rewindIndex) {
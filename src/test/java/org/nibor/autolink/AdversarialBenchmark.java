@@ -0,0 +1,51 @@
+package org.nibor.autolink;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures extraction on inputs that are made to make the scanners redo work (see {@link LinearTimeTest}), at two
+ * sizes. The time for the large input should be about 10 times the one for the small input, more means the time is not
+ * linear in the size of the input.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AdversarialBenchmark {
+
+    @Param({"local part then @", "@ separated", "domain without dot", "scheme separators", "invalid schemes",
+            "url then separators", "nested brackets", "www without dot", "w"})
+    public String input;
+
+    @Param({"100000", "1000000"})
+    public int repetitions;
+
+    private String text;
+    private final LinkExtractor linkExtractor = LinkExtractor.builder().build();
+    private final LinkSpanBuffer links = new LinkSpanBuffer();
+
+    public static void main(String[] args) throws Exception {
+        Main.main(args);
+    }
+
+    @Setup
+    public void setup() {
+        text = LinearTimeTest.adversarialInputs().get(input).apply(repetitions);
+    }
+
+    @Benchmark
+    public int extract() {
+        links.clear();
+        linkExtractor.extractLinks(text, links);
+        return links.size();
+    }
+}
@@ -18,9 +18,11 @@ public class AutolinkEmailTest extends AutolinkTestCase {
 
     public static Stream<Arguments> data() {
         return Stream.of(
-                arguments(EnumSet.of(LinkType.EMAIL), true),
-                arguments(EnumSet.allOf(LinkType.class), true),
-                arguments(EnumSet.allOf(LinkType.class), false)
+                arguments(EnumSet.of(LinkType.EMAIL), true, false),
+                arguments(EnumSet.allOf(LinkType.class), true, false),
+                arguments(EnumSet.allOf(LinkType.class), false, false),
+                arguments(EnumSet.allOf(LinkType.class), true, true),
+                arguments(EnumSet.allOf(LinkType.class), false, true)
         );
     }
 
@@ -30,6 +32,9 @@ public class AutolinkEmailTest extends AutolinkTestCase {
     @Parameter(1)
     public boolean domainMustHaveDot;
 
+    @Parameter(2)
+    public boolean forwardOnly;
+
     @Test
     public void notLinked() {
         assertNotLinked("");
@@ -136,7 +141,8 @@ public class AutolinkEmailTest extends AutolinkTestCase {
 
     @Override
     protected LinkExtractor getLinkExtractor() {
-        return LinkExtractor.builder().linkTypes(linkTypes).emailDomainMustHaveDot(domainMustHaveDot).build();
+        return LinkExtractor.builder().linkTypes(linkTypes).emailDomainMustHaveDot(domainMustHaveDot)
+                .forwardOnly(forwardOnly).build();
     }
 
     private void assertLinked(String input, String expected) {
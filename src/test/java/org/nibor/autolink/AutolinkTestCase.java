@@ -2,6 +2,8 @@ package org.nibor.autolink;
 
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 public abstract class AutolinkTestCase {
 
@@ -12,6 +14,21 @@ public abstract class AutolinkTestCase {
         result = renderExtractedSpans(input, "|", expectedLinkType);
         assertEquals(expected, result);
 
+        result = renderConsumedLinks(input, "|", expectedLinkType);
+        assertEquals(expected, result);
+
+        result = renderConsumedSpans(input, "|", expectedLinkType);
+        assertEquals(expected, result);
+
+        result = renderArrayLinks(input, "|", expectedLinkType);
+        assertEquals(expected, result);
+
+        result = renderMatchedLinks(input, "|", expectedLinkType);
+        assertEquals(expected, result);
+
+        int linkCount = (expected.length() - input.length()) / 2;
+        assertEquals(linkCount, getLinkExtractor().countLinks(input));
+        assertEquals(linkCount > 0, getLinkExtractor().containsLink(input));
     }
 
     protected void assertNotLinked(String input) {
@@ -20,6 +37,22 @@ public abstract class AutolinkTestCase {
 
         result = renderExtractedSpans(input, "|", null);
         assertEquals(input, result);
+
+        result = renderConsumedLinks(input, "|", null);
+        assertEquals(input, result);
+
+        result = renderConsumedSpans(input, "|", null);
+        assertEquals(input, result);
+
+        result = renderArrayLinks(input, "|", null);
+        assertEquals(input, result);
+
+        result = renderMatchedLinks(input, "|", null);
+        assertEquals(input, result);
+
+        assertEquals(0, getLinkExtractor().countLinks(input));
+        assertFalse(getLinkExtractor().containsLink(input));
+        assertNull(getLinkExtractor().firstLink(input));
     }
 
     protected abstract LinkExtractor getLinkExtractor();
@@ -61,4 +94,78 @@ public abstract class AutolinkTestCase {
         return sb.toString();
     }
 
+    protected String renderConsumedLinks(final String input, final String marker, final LinkType expectedLinkType) {
+        final StringBuilder sb = new StringBuilder();
+        final int[] lastIndex = {0};
+        getLinkExtractor().extractLinks(input, (type, beginIndex, endIndex) -> {
+            if (expectedLinkType != null) {
+                assertEquals(expectedLinkType, type);
+            }
+            sb.append(input, lastIndex[0], beginIndex);
+            sb.append(marker);
+            sb.append(input, beginIndex, endIndex);
+            sb.append(marker);
+            lastIndex[0] = endIndex;
+        });
+        sb.append(input, lastIndex[0], input.length());
+        return sb.toString();
+    }
+
+    protected String renderConsumedSpans(final String input, final String marker, final LinkType expectedLinkType) {
+        final StringBuilder sb = new StringBuilder();
+        getLinkExtractor().extractSpans(input, new SpanConsumer() {
+            @Override
+            public void accept(LinkType type, int beginIndex, int endIndex) {
+                if (expectedLinkType != null) {
+                    assertEquals(expectedLinkType, type);
+                }
+                sb.append(marker);
+                sb.append(input, beginIndex, endIndex);
+                sb.append(marker);
+            }
+
+            @Override
+            public void acceptText(int beginIndex, int endIndex) {
+                sb.append(input, beginIndex, endIndex);
+            }
+        });
+        return sb.toString();
+    }
+
+    protected String renderArrayLinks(String input, String marker, LinkType expectedLinkType) {
+        // Surround the input with other text in the array, which must not be looked at
+        char[] array = ("a@b." + input + "://c").toCharArray();
+        StringBuilder sb = new StringBuilder();
+        int lastIndex = 0;
+        for (LinkSpan link : getLinkExtractor().extractLinks(array, 4, input.length())) {
+            if (expectedLinkType != null) {
+                assertEquals(expectedLinkType, link.getType());
+            }
+            sb.append(input, lastIndex, link.getBeginIndex());
+            sb.append(marker);
+            sb.append(input, link.getBeginIndex(), link.getEndIndex());
+            sb.append(marker);
+            lastIndex = link.getEndIndex();
+        }
+        sb.append(input, lastIndex, input.length());
+        return sb.toString();
+    }
+
+    protected String renderMatchedLinks(String input, String marker, LinkType expectedLinkType) {
+        LinkMatcher matcher = getLinkExtractor().matcher(input);
+        StringBuilder sb = new StringBuilder();
+        int lastIndex = 0;
+        while (matcher.find()) {
+            if (expectedLinkType != null) {
+                assertEquals(expectedLinkType, matcher.type());
+            }
+            sb.append(input, lastIndex, matcher.start());
+            sb.append(marker);
+            sb.append(input, matcher.start(), matcher.end());
+            sb.append(marker);
+            lastIndex = matcher.end();
+        }
+        sb.append(input, lastIndex, input.length());
+        return sb.toString();
+    }
 }
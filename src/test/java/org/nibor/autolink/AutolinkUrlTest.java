@@ -19,14 +19,18 @@ public class AutolinkUrlTest extends AutolinkTestCase {
 
     public static Stream<Arguments> data() {
         return Stream.of(
-                arguments(EnumSet.of(LinkType.URL)),
-                arguments(EnumSet.allOf(LinkType.class))
+                arguments(EnumSet.of(LinkType.URL), false),
+                arguments(EnumSet.allOf(LinkType.class), false),
+                arguments(EnumSet.allOf(LinkType.class), true)
         );
     }
 
-    @Parameter
+    @Parameter(0)
     public Set<LinkType> linkTypes;
 
+    @Parameter(1)
+    public boolean forwardOnly;
+
     @Test
     public void notLinked() {
         assertNotLinked("");
@@ -241,7 +245,7 @@ public class AutolinkUrlTest extends AutolinkTestCase {
 
     @Override
     protected LinkExtractor getLinkExtractor() {
-        return LinkExtractor.builder().linkTypes(linkTypes).build();
+        return LinkExtractor.builder().linkTypes(linkTypes).forwardOnly(forwardOnly).build();
     }
 
     protected void assertLinked(String input, String expected) {
@@ -0,0 +1,91 @@
+package org.nibor.autolink;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares extracting links from 100k short messages one at a time with extracting them as a batch.
+ */
+@State(Scope.Benchmark)
+public class BatchBenchmark {
+
+    private static final List<String> WORDS = Arrays.asList(
+            "Lorem ", "ipsum ", "dolor ", "sit ", "amet, ", "with ", "we ", "know ", "(how) ", "it: ", "lol ",
+            "http://example.com/path ", "www.something.com ", "foo@example.com "
+    );
+
+    private List<String> messages;
+    private String concatenated;
+    private int[] messageEnds;
+    private LinkExtractor linkExtractor;
+    private final LinkSpanBuffer buffer = new LinkSpanBuffer();
+    private final LinkBatch batch = new LinkBatch();
+
+    public static void main(String[] args) throws Exception {
+        Main.main(args);
+    }
+
+    @Setup
+    public void setup() {
+        Random random = new Random(1);
+        messages = new ArrayList<>();
+        messageEnds = new int[100_000];
+        StringBuilder all = new StringBuilder();
+        for (int i = 0; i < messageEnds.length; i++) {
+            StringBuilder sb = new StringBuilder();
+            int words = 5 + random.nextInt(20);
+            for (int j = 0; j < words; j++) {
+                sb.append(WORDS.get(random.nextInt(WORDS.size())));
+            }
+            messages.add(sb.toString());
+            all.append(sb);
+            messageEnds[i] = all.length();
+        }
+        concatenated = all.toString();
+        linkExtractor = LinkExtractor.builder().build();
+    }
+
+    @Benchmark
+    public int iterable() {
+        int count = 0;
+        for (String message : messages) {
+            for (LinkSpan ignore : linkExtractor.extractLinks(message)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int consumer() {
+        int count = 0;
+        for (String message : messages) {
+            buffer.clear();
+            linkExtractor.extractLinks(message, buffer);
+            count += buffer.size();
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int batchList() {
+        batch.clear();
+        linkExtractor.extractBatch(messages, batch);
+        return batch.size();
+    }
+
+    @Benchmark
+    public int batchConcatenated() {
+        batch.clear();
+        linkExtractor.extractBatch(concatenated, messageEnds, batch);
+        return batch.size();
+    }
+}
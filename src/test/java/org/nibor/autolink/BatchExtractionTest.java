@@ -0,0 +1,115 @@
+package org.nibor.autolink;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class BatchExtractionTest {
+
+    private final LinkExtractor linkExtractor = LinkExtractor.builder().build();
+
+    @Test
+    public void documents() {
+        List<String> documents = Arrays.asList("foo http://example.org", "", "no links",
+                "a@example.com www.example.org");
+        LinkBatch batch = new LinkBatch();
+        linkExtractor.extractBatch(documents, batch);
+        assertEquals(4, batch.documentCount());
+        assertEquals(3, batch.size());
+        assertEquals("[URL 4-22]", linksOf(batch, 0));
+        assertEquals("[]", linksOf(batch, 1));
+        assertEquals("[]", linksOf(batch, 2));
+        assertEquals("[EMAIL 0-13, WWW 14-29]", linksOf(batch, 3));
+        assertEquals(1, batch.linkStart(3));
+        assertEquals(3, batch.linkEnd(3));
+        assertEquals(2, batch.linkCount(3));
+    }
+
+    @Test
+    public void concatenated() {
+        // Without the document ends, these would be an email address and an URL
+        String input = "foo@" + "example.com" + "http" + "://example.org";
+        LinkBatch batch = new LinkBatch();
+        linkExtractor.extractBatch(input, new int[]{4, 15, 19, 33}, batch);
+        assertEquals(4, batch.documentCount());
+        assertEquals("[]", linksOf(batch, 0));
+        assertEquals("[]", linksOf(batch, 1));
+        assertEquals("[]", linksOf(batch, 2));
+        assertEquals("[]", linksOf(batch, 3));
+
+        batch.clear();
+        linkExtractor.extractBatch(input, new int[]{15, 33}, batch);
+        assertEquals(2, batch.documentCount());
+        assertEquals("[EMAIL 0-15]", linksOf(batch, 0));
+        assertEquals("[URL 15-33]", linksOf(batch, 1));
+    }
+
+    @Test
+    public void sameAsSeparateExtraction() {
+        Random random = new Random(1);
+        List<String> documents = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            documents.add(TestInputs.randomText(random, random.nextInt(50)));
+        }
+        int[] documentEnds = new int[documents.size()];
+        StringBuilder concatenated = new StringBuilder();
+        for (int i = 0; i < documents.size(); i++) {
+            concatenated.append(documents.get(i));
+            documentEnds[i] = concatenated.length();
+        }
+
+        LinkBatch batch = new LinkBatch(0);
+        linkExtractor.extractBatch(documents, batch);
+        LinkBatch concatenatedBatch = new LinkBatch();
+        linkExtractor.extractBatch(concatenated, documentEnds, concatenatedBatch);
+        assertEquals(documents.size(), batch.documentCount());
+        assertEquals(documents.size(), concatenatedBatch.documentCount());
+        int documentBegin = 0;
+        for (int document = 0; document < documents.size(); document++) {
+            LinkSpanBuffer expected = new LinkSpanBuffer();
+            linkExtractor.extractLinks(documents.get(document), expected);
+            assertEquals(expected.size(), batch.linkCount(document));
+            assertEquals(expected.size(), concatenatedBatch.linkCount(document));
+            for (int i = 0; i < expected.size(); i++) {
+                int index = batch.linkStart(document) + i;
+                assertEquals(expected.getType(i), batch.getType(index));
+                assertEquals(expected.getBeginIndex(i), batch.getBeginIndex(index));
+                assertEquals(expected.getEndIndex(i), batch.getEndIndex(index));
+                assertEquals(expected.getBeginIndex(i) + documentBegin, concatenatedBatch.getBeginIndex(index));
+                assertEquals(expected.getEndIndex(i) + documentBegin, concatenatedBatch.getEndIndex(index));
+            }
+            documentBegin = documentEnds[document];
+        }
+    }
+
+    @Test
+    public void invalidArguments() {
+        LinkBatch batch = new LinkBatch();
+        assertThrows(NullPointerException.class, () -> linkExtractor.extractBatch(null, batch));
+        assertThrows(NullPointerException.class, () -> linkExtractor.extractBatch(List.of("a"), null));
+        assertThrows(NullPointerException.class, () -> linkExtractor.extractBatch(Arrays.asList("a", null), batch));
+        assertThrows(NullPointerException.class, () -> linkExtractor.extractBatch("a", null, batch));
+        assertThrows(IllegalArgumentException.class, () -> linkExtractor.extractBatch("abc", new int[]{2, 1}, batch));
+        assertThrows(IndexOutOfBoundsException.class, () -> linkExtractor.extractBatch("abc", new int[]{4}, batch));
+        assertThrows(IndexOutOfBoundsException.class, () -> linkExtractor.extractBatch("abc", new int[]{-1}, batch));
+        assertThrows(IndexOutOfBoundsException.class, () -> batch.linkStart(0));
+    }
+
+    private static String linksOf(LinkBatch batch, int document) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = batch.linkStart(document); i < batch.linkEnd(document); i++) {
+            if (i > batch.linkStart(document)) {
+                sb.append(", ");
+            }
+            sb.append(batch.getType(i)).append(' ').append(batch.getBeginIndex(i)).append('-')
+                    .append(batch.getEndIndex(i));
+        }
+        return sb.append(']').toString();
+    }
+}
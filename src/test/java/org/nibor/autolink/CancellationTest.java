@@ -0,0 +1,111 @@
+package org.nibor.autolink;
+
+import org.junit.jupiter.api.Test;
+import org.nibor.autolink.internal.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CancellationTest {
+
+    private final LinkExtractor linkExtractor = LinkExtractor.builder().build();
+
+    @Test
+    public void notCancelled() {
+        String input = "foo http://example.org a@example.com";
+        LinkSpanBuffer links = new LinkSpanBuffer();
+        assertEquals(input.length(), linkExtractor.extractLinks(input, links, () -> false));
+        assertEquals("LinkSpanBuffer[URL 4-22, EMAIL 23-36]", links.toString());
+    }
+
+    @Test
+    public void cancelledBeforeStart() {
+        LinkSpanBuffer links = new LinkSpanBuffer();
+        assertEquals(0, linkExtractor.extractLinks("foo http://example.org", links, () -> true));
+        assertTrue(links.isEmpty());
+    }
+
+    @Test
+    public void spans() {
+        String input = "a@example.com " + "x".repeat(5000) + " http://example.org";
+        List<String> spans = new ArrayList<>();
+        SpanConsumer consumer = new SpanConsumer() {
+            @Override
+            public void accept(LinkType type, int beginIndex, int endIndex) {
+                spans.add(type + " " + beginIndex + "-" + endIndex);
+            }
+
+            @Override
+            public void acceptText(int beginIndex, int endIndex) {
+                spans.add(beginIndex + "-" + endIndex);
+            }
+        };
+        assertEquals(input.length(), linkExtractor.extractSpans(input, consumer, () -> false));
+        assertEquals(List.of("EMAIL 0-13", "13-5015", "URL 5015-5033"), spans);
+
+        spans.clear();
+        int[] checks = {0};
+        int end = linkExtractor.extractSpans(input, consumer, () -> checks[0]++ > 0);
+        assertEquals(5015, end);
+        assertEquals(List.of("EMAIL 0-13", "13-5015"), spans);
+    }
+
+    @Test
+    public void cancelledInLongRun() {
+        // No boundary characters, so the input can't be split into chunks
+        String input = "x@y.org,".repeat(200_000);
+        LinkSpanBuffer links = new LinkSpanBuffer();
+        int[] checks = {0};
+        int end = linkExtractor.extractLinks(input, links, () -> checks[0]++ >= 10);
+        assertTrue(end > 0 && end < input.length() / 10, "end " + end);
+        assertEquals(end, links.getEndIndex(links.size() - 1));
+        for (int i = 0; i < links.size(); i++) {
+            assertEquals(i * 8, links.getBeginIndex(i));
+        }
+    }
+
+    @Test
+    public void partialResultIsPrefix() {
+        LinkFinder linkFinder = new TriggerLinkFinder(new UrlScanner(), new WwwScanner(), new EmailScanner(true));
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            String input = TestInputs.randomText(random, random.nextInt(300));
+            List<String> all = TestInputs.format(linkExtractor.extractLinks(input));
+
+            int checkInterval = 1 + random.nextInt(20);
+            int allowedChecks = random.nextInt(20);
+            int[] checks = {0};
+            BooleanSupplier cancelled = () -> checks[0]++ >= allowedChecks;
+            List<String> partial = new ArrayList<>();
+            int end = new CancellableExtractor(linkFinder, checkInterval).extract(input,
+                    (type, beginIndex, endIndex) -> partial.add(type + " " + beginIndex + "-" + endIndex), cancelled);
+
+            // The partial result is exactly the links up to the end
+            List<String> expected = new ArrayList<>();
+            for (LinkSpan link : linkExtractor.extractLinks(input)) {
+                if (link.getEndIndex() <= end) {
+                    expected.add(link.getType() + " " + link.getBeginIndex() + "-" + link.getEndIndex());
+                } else {
+                    assertTrue(link.getBeginIndex() >= end, input);
+                }
+            }
+            assertEquals(expected, partial, input);
+            if (end == input.length()) {
+                assertEquals(all, partial, input);
+            }
+        }
+    }
+
+    @Test
+    public void nullArguments() {
+        assertThrows(NullPointerException.class, () -> linkExtractor.extractLinks("", new LinkSpanBuffer(), null));
+        assertThrows(NullPointerException.class, () -> linkExtractor.extractLinks(null, new LinkSpanBuffer(),
+                () -> false));
+    }
+}
@@ -0,0 +1,83 @@
+package org.nibor.autolink;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Measures how concurrent batch extraction (see {@link LinkExtractor#extractBatch(List, java.util.concurrent.Executor,
+ * java.util.function.ObjIntConsumer)}) scales with the number of threads, for 100k short messages. The "virtual"
+ * backend needs Java 21 or later and ignores the number of threads.
+ */
+@State(Scope.Benchmark)
+public class ConcurrentBatchBenchmark {
+
+    private static final List<String> WORDS = Arrays.asList(
+            "Lorem ", "ipsum ", "dolor ", "sit ", "amet, ", "with ", "we ", "know ", "(how) ", "it: ", "lol ",
+            "http://example.com/path ", "www.something.com ", "foo@example.com "
+    );
+
+    @Param({"fixed", "forkjoin", "virtual"})
+    public String backend;
+
+    @Param({"1", "2", "4", "8", "16", "32", "64"})
+    public int threads;
+
+    private List<String> messages;
+    private LinkExtractor linkExtractor;
+    private ExecutorService executor;
+
+    public static void main(String[] args) throws Exception {
+        Main.main(args);
+    }
+
+    @Setup
+    public void setup() throws Exception {
+        Random random = new Random(1);
+        messages = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            StringBuilder sb = new StringBuilder();
+            int words = 5 + random.nextInt(20);
+            for (int j = 0; j < words; j++) {
+                sb.append(WORDS.get(random.nextInt(WORDS.size())));
+            }
+            messages.add(sb.toString());
+        }
+        linkExtractor = LinkExtractor.builder().build();
+        switch (backend) {
+            case "fixed":
+                executor = Executors.newFixedThreadPool(threads);
+                break;
+            case "forkjoin":
+                executor = new ForkJoinPool(threads);
+                break;
+            default:
+                executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+                break;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public int extract() {
+        int[] count = {0};
+        linkExtractor.extractBatch(messages, executor, (batch, firstDocument) -> count[0] += batch.size());
+        return count[0];
+    }
+}
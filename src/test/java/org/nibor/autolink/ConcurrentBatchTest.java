@@ -0,0 +1,116 @@
+package org.nibor.autolink;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConcurrentBatchTest {
+
+    private final LinkExtractor linkExtractor = LinkExtractor.builder().build();
+
+    @Test
+    public void executors() throws Exception {
+        List<String> documents = generateDocuments(new Random(1), 20_000);
+        List<String> expected = extractSequential(documents);
+
+        ExecutorService fixed = Executors.newFixedThreadPool(4);
+        try {
+            assertEquals(expected, extractConcurrent(documents, fixed));
+        } finally {
+            fixed.shutdown();
+        }
+        assertEquals(expected, extractConcurrent(documents, ForkJoinPool.commonPool()));
+        // Like a virtual thread per task executor
+        assertEquals(expected, extractConcurrent(documents, task -> new Thread(task).start()));
+        assertEquals(expected, extractConcurrent(documents, Runnable::run));
+    }
+
+    @Test
+    public void emptyAndSmall() {
+        assertEquals(List.of(), extractConcurrent(List.of(), ForkJoinPool.commonPool()));
+        List<String> documents = List.of("foo http://example.org", "", "a@example.com");
+        assertEquals(extractSequential(documents), extractConcurrent(documents, ForkJoinPool.commonPool()));
+    }
+
+    @Test
+    public void slowConsumer() {
+        List<String> documents = generateDocuments(new Random(2), 20_000);
+        AtomicInteger submitted = new AtomicInteger();
+        Executor executor = task -> {
+            submitted.incrementAndGet();
+            ForkJoinPool.commonPool().execute(task);
+        };
+        int maxPending = Math.max(2, Runtime.getRuntime().availableProcessors() * 4);
+        int[] consumed = {0};
+        linkExtractor.extractBatch(documents, executor, (batch, firstDocument) -> {
+            consumed[0]++;
+            // Extraction doesn't get further ahead of the consumer than the limit of pending tasks
+            assertTrue(submitted.get() - consumed[0] < maxPending);
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        assertEquals(submitted.get(), consumed[0]);
+    }
+
+    @Test
+    public void invalidArguments() {
+        Executor executor = Runnable::run;
+        assertThrows(NullPointerException.class, () -> linkExtractor.extractBatch(null, executor, (b, i) -> {}));
+        assertThrows(NullPointerException.class, () -> linkExtractor.extractBatch(List.of(), null, (b, i) -> {}));
+        assertThrows(NullPointerException.class, () -> linkExtractor.extractBatch(List.of(), executor, null));
+        List<String> withNull = new ArrayList<>();
+        withNull.add(null);
+        assertThrows(NullPointerException.class, () -> linkExtractor.extractBatch(withNull, executor, (b, i) -> {}));
+    }
+
+    private List<String> extractSequential(List<String> documents) {
+        LinkBatch batch = new LinkBatch();
+        linkExtractor.extractBatch(documents, batch);
+        return toStrings(batch, 0);
+    }
+
+    private List<String> extractConcurrent(List<String> documents, Executor executor) {
+        List<String> result = new ArrayList<>();
+        int[] nextDocument = {0};
+        linkExtractor.extractBatch(documents, executor, (batch, firstDocument) -> {
+            assertEquals(nextDocument[0], firstDocument);
+            nextDocument[0] += batch.documentCount();
+            result.addAll(toStrings(batch, firstDocument));
+        });
+        assertEquals(documents.size(), nextDocument[0]);
+        return result;
+    }
+
+    private static List<String> toStrings(LinkBatch batch, int firstDocument) {
+        List<String> result = new ArrayList<>();
+        for (int document = 0; document < batch.documentCount(); document++) {
+            for (int i = batch.linkStart(document); i < batch.linkEnd(document); i++) {
+                result.add((firstDocument + document) + ": " + batch.getType(i) + " " + batch.getBeginIndex(i) +
+                        "-" + batch.getEndIndex(i));
+            }
+        }
+        return result;
+    }
+
+    private static List<String> generateDocuments(Random random, int count) {
+        List<String> documents = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            documents.add(TestInputs.randomText(random, random.nextInt(100)));
+        }
+        return documents;
+    }
+}
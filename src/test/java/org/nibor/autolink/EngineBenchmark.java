@@ -0,0 +1,77 @@
+package org.nibor.autolink;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+/**
+ * Compares the default engine with the forward one (see {@link LinkExtractor.Builder#forwardOnly}) on about 1 MB of
+ * prose with some links, text with a link in almost every word, and some of the inputs of {@link LinearTimeTest}.
+ */
+@State(Scope.Benchmark)
+public class EngineBenchmark {
+
+    private static final List<String> PROSE = Arrays.asList(
+            "Lorem ", "ipsum ", "dolor ", "sit ", "amet, ", "with ", "we ", "know ", "(how) ", "it: ", "\n",
+            "http://example.com/path/to/some_page?query=value&other=1 ", "www.something.com/foo ",
+            "foo.bar+tag@example.com "
+    );
+    private static final List<String> DENSE = Arrays.asList(
+            "http://a.com ", "https://b.org/x ", "www.c.net ", "d@e.com ", "f.g@h.io ", "x "
+    );
+
+    @Param({"forward", "trigger"})
+    public String engine;
+
+    @Param({"prose", "dense", "local part then @", "@ separated", "scheme chars", "w"})
+    public String input;
+
+    private String text;
+    private LinkExtractor linkExtractor;
+
+    public static void main(String[] args) throws Exception {
+        Main.main(args);
+    }
+
+    @Setup
+    public void setup() {
+        int size = 1024 * 1024;
+        switch (input) {
+            case "prose":
+                text = generate(PROSE, size);
+                break;
+            case "dense":
+                text = generate(DENSE, size);
+                break;
+            default:
+                IntFunction<String> generator = LinearTimeTest.adversarialInputs().get(input);
+                text = generator.apply(size / generator.apply(1).length());
+                break;
+        }
+        linkExtractor = LinkExtractor.builder().forwardOnly(engine.equals("forward")).build();
+    }
+
+    @Benchmark
+    public int extract() {
+        int[] count = {0};
+        linkExtractor.extractLinks(text, (type, beginIndex, endIndex) -> count[0]++);
+        return count[0];
+    }
+
+    private static String generate(List<String> words, int length) {
+        Random random = new Random(1);
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() < length) {
+            sb.append(words.get(random.nextInt(words.size())));
+        }
+        return sb.toString();
+    }
+}
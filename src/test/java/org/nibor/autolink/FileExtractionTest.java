@@ -0,0 +1,75 @@
+package org.nibor.autolink;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.nibor.autolink.internal.FileExtractor;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class FileExtractionTest {
+
+    private final LinkExtractor linkExtractor = LinkExtractor.builder().build();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void file() throws IOException {
+        Path file = write("ä http://üñîçøðé.com/ä ä\nfoo@example.com");
+        List<String> links = new ArrayList<>();
+        linkExtractor.extractLinks(file, link -> links.add(link.getBeginOffset() + "-" + link.getEndOffset() + " " +
+                link.getText()));
+        assertEquals(List.of("3-31 http://üñîçøðé.com/ä", "35-50 foo@example.com"), links);
+    }
+
+    @Test
+    public void emptyFile() throws IOException {
+        List<ExtractedLink> links = new ArrayList<>();
+        linkExtractor.extractLinks(write(""), links::add);
+        assertEquals(List.of(), links);
+    }
+
+    @Test
+    public void sameAsInMemory() throws IOException {
+        Random random = new Random(42);
+        for (int i = 0; i < 200; i++) {
+            String input = TestInputs.randomText(random);
+            Path file = write(input);
+            int windowSize = 1 + random.nextInt(20);
+            assertEquals(extractInMemory(input), extractMapped(file, windowSize), input);
+        }
+    }
+
+    private Path write(String content) throws IOException {
+        return Files.write(Files.createTempFile(tempDir, "input", ".txt"), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private List<String> extractInMemory(String input) {
+        byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+        List<String> links = new ArrayList<>();
+        for (LinkSpan link : linkExtractor.extractUtf8Links(bytes, 0, bytes.length)) {
+            String text = new String(bytes, link.getBeginIndex(), link.getEndIndex() - link.getBeginIndex(),
+                    StandardCharsets.UTF_8);
+            links.add(link.getType() + " " + link.getBeginIndex() + "-" + link.getEndIndex() + " " + text);
+        }
+        return links;
+    }
+
+    private List<String> extractMapped(Path file, int windowSize) throws IOException {
+        List<String> links = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            new FileExtractor(linkExtractor, windowSize).extract(channel, link -> links.add(TestInputs.format(link)));
+        }
+        return links;
+    }
+}
@@ -0,0 +1,98 @@
+package org.nibor.autolink;
+
+import org.junit.jupiter.api.Test;
+import org.nibor.autolink.internal.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Differential tests that check that the forward engine finds the same links as the default one.
+ */
+public class ForwardLinkFinderTest {
+
+    @Test
+    public void sameAsDefault() {
+        Random random = new Random(42);
+        for (int i = 0; i < 20_000; i++) {
+            String input = TestInputs.randomText(random);
+            Set<LinkType> linkTypes = randomLinkTypes(random);
+            boolean domainMustHaveDot = random.nextBoolean();
+            int maxLinkLength = random.nextInt(4) == 0 ? 1 + random.nextInt(30) : Integer.MAX_VALUE;
+            int maxLookbehind = random.nextInt(4) == 0 ? random.nextInt(10) : Integer.MAX_VALUE;
+            LinkExtractor expected = LinkExtractor.builder().linkTypes(linkTypes)
+                    .emailDomainMustHaveDot(domainMustHaveDot).maxLinkLength(maxLinkLength)
+                    .maxLookbehind(maxLookbehind).build();
+            LinkExtractor actual = LinkExtractor.builder().linkTypes(linkTypes)
+                    .emailDomainMustHaveDot(domainMustHaveDot).maxLinkLength(maxLinkLength)
+                    .maxLookbehind(maxLookbehind).forwardOnly(true).build();
+            String message = input + " " + linkTypes + " " + domainMustHaveDot + " " + maxLinkLength + " " +
+                    maxLookbehind;
+
+            assertEquals(extract(expected, input), extract(actual, input), message);
+            byte[] utf8 = input.getBytes(StandardCharsets.UTF_8);
+            assertEquals(TestInputs.format(expected.extractUtf8Links(utf8, 0, utf8.length)),
+                    TestInputs.format(actual.extractUtf8Links(utf8, 0, utf8.length)), message);
+        }
+    }
+
+    @Test
+    public void sameAsDefaultWithRewind() {
+        LinkFinder expected = new TriggerLinkFinder(new UrlScanner(), new WwwScanner(), new EmailScanner(true));
+        LinkFinder actual = new ForwardLinkFinder(true, true, true, true, Integer.MAX_VALUE, Integer.MAX_VALUE);
+        Random random = new Random(1);
+        for (int i = 0; i < 20_000; i++) {
+            String input = TestInputs.randomText(random);
+            int rewindIndex = random.nextInt(input.length() + 1);
+            int beginIndex = rewindIndex + random.nextInt(input.length() - rewindIndex + 1);
+            assertEquals(expected.find(input, beginIndex, input.length(), rewindIndex),
+                    actual.find(input, beginIndex, input.length(), rewindIndex),
+                    input + " " + beginIndex + " " + rewindIndex);
+        }
+    }
+
+    @Test
+    public void adversarial() {
+        LinkExtractor expected = LinkExtractor.builder().maxLinkLength(100).build();
+        LinkExtractor actual = LinkExtractor.builder().maxLinkLength(100).forwardOnly(true).build();
+        for (String input : new String[]{"a".repeat(500) + "@b.com", "a1://".repeat(50), "-www.a.b)".repeat(50),
+                "http://" + "(".repeat(200), "a.".repeat(100) + "@b.c"}) {
+            assertEquals(extract(expected, input), extract(actual, input), input);
+        }
+    }
+
+    @Test
+    public void maxLookbehind() {
+        LinkExtractor expected = LinkExtractor.builder().maxLookbehind(5).build();
+        LinkExtractor actual = LinkExtractor.builder().maxLookbehind(5).forwardOnly(true).build();
+        for (String input : new String[]{".https://x.org", "-https://x.org", "..+https://x.org", "1.https://x.org",
+                "a.https://x.org", "12345https://x.org", "foobar://x.org", ".fo.ba@x.org", "-foo.bar@x.org"}) {
+            assertEquals(extract(expected, input), extract(actual, input), input);
+        }
+    }
+
+    private static Set<LinkType> randomLinkTypes(Random random) {
+        Set<LinkType> linkTypes = EnumSet.noneOf(LinkType.class);
+        for (LinkType linkType : LinkType.values()) {
+            if (random.nextInt(4) != 0) {
+                linkTypes.add(linkType);
+            }
+        }
+        return linkTypes;
+    }
+
+    private static List<String> extract(LinkExtractor linkExtractor, String input) {
+        List<String> spans = new ArrayList<>();
+        for (Span span : linkExtractor.extractSpans(input)) {
+            String type = span instanceof LinkSpan ? ((LinkSpan) span).getType() + " " : "";
+            spans.add(type + span.getBeginIndex() + "-" + span.getEndIndex());
+        }
+        return spans;
+    }
+}
@@ -0,0 +1,99 @@
+package org.nibor.autolink;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compares ways of extracting links from 16 MB of gzip-compressed text: inflating into a string first, streaming with
+ * a reader, and reading concurrently with scanning (see {@link LinkExtractor#extractLinks(Reader,
+ * java.util.concurrent.Executor, java.util.function.Consumer)}).
+ */
+@State(Scope.Benchmark)
+public class GzipBenchmark {
+
+    private static final List<String> WORDS = Arrays.asList(
+            "Lorem ", "ipsum ", "dolor ", "sit ", "amet, ", "with ", "we ", "know ", "(how) ", "it: ", "\n",
+            "http://example.com/path/to/some_page?query=value&other=1 ", "www.something.com/foo ",
+            "foo.bar+tag@example.com "
+    );
+
+    private byte[] compressed;
+    private LinkExtractor linkExtractor;
+    private ExecutorService executor;
+
+    public static void main(String[] args) throws Exception {
+        Main.main(args);
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        Random random = new Random(1);
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() < 16 * 1024 * 1024) {
+            sb.append(WORDS.get(random.nextInt(WORDS.size())));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(sb.toString().getBytes(StandardCharsets.UTF_8));
+        }
+        compressed = out.toByteArray();
+        linkExtractor = LinkExtractor.builder().build();
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdown();
+    }
+
+    @Benchmark
+    public int inflateThenScan() throws IOException {
+        StringWriter writer = new StringWriter();
+        try (Reader reader = reader()) {
+            reader.transferTo(writer);
+        }
+        return linkExtractor.countLinks(writer.getBuffer());
+    }
+
+    @Benchmark
+    public int stream() throws IOException {
+        int[] count = {0};
+        try (Reader reader = reader()) {
+            linkExtractor.extractLinks(reader, link -> count[0]++);
+        }
+        return count[0];
+    }
+
+    @Benchmark
+    public int pipelined() throws IOException {
+        int[] count = {0};
+        try (Reader reader = reader()) {
+            linkExtractor.extractLinks(reader, executor, link -> count[0]++);
+        }
+        return count[0];
+    }
+
+    private Reader reader() throws IOException {
+        return new InputStreamReader(new GZIPInputStream(new ByteArrayInputStream(compressed), 64 * 1024),
+                StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,76 @@
+package org.nibor.autolink;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares {@link HtmlRenderer} with rendering HTML by hand from {@link LinkExtractor#extractSpans(CharSequence)},
+ * escaping each span into a temporary string.
+ */
+@State(Scope.Benchmark)
+public class HtmlRendererBenchmark {
+
+    private static final List<String> WORDS = Arrays.asList(
+            "Lorem ", "ipsum ", "dolor ", "sit ", "amet, ", "with ", "we ", "know ", "(how) ", "it: ", "<b> ", "& ",
+            "http://example.com/path/to/some_page?query=value&other=1 ", "www.something.com/foo ",
+            "foo.bar+tag@example.com "
+    );
+
+    private String input;
+    private LinkExtractor linkExtractor;
+    private HtmlRenderer htmlRenderer;
+
+    public static void main(String[] args) throws Exception {
+        Main.main(args);
+    }
+
+    @Setup
+    public void setup() {
+        Random random = new Random(1);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            sb.append(WORDS.get(random.nextInt(WORDS.size())));
+        }
+        input = sb.toString();
+        linkExtractor = LinkExtractor.builder().build();
+        htmlRenderer = HtmlRenderer.builder().linkExtractor(linkExtractor).build();
+    }
+
+    @Benchmark
+    public CharSequence renderer() {
+        return htmlRenderer.render(input);
+    }
+
+    @Benchmark
+    public String spans() {
+        StringBuilder sb = new StringBuilder();
+        for (Span span : linkExtractor.extractSpans(input)) {
+            String text = escape(input.substring(span.getBeginIndex(), span.getEndIndex()));
+            if (span instanceof LinkSpan) {
+                LinkType type = ((LinkSpan) span).getType();
+                sb.append("<a href=\"");
+                if (type == LinkType.EMAIL) {
+                    sb.append("mailto:");
+                } else if (type == LinkType.WWW) {
+                    sb.append("http://");
+                }
+                sb.append(text).append("\">").append(text).append("</a>");
+            } else {
+                sb.append(text);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;")
+                .replace("\"", "&quot;").replace("'", "&#39;");
+    }
+}
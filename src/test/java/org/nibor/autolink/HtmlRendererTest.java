@@ -0,0 +1,94 @@
+package org.nibor.autolink;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class HtmlRendererTest {
+
+    private final HtmlRenderer renderer = HtmlRenderer.builder().build();
+
+    @Test
+    public void links() {
+        assertEquals("wow <a href=\"http://example.org\">http://example.org</a> such linked",
+                renderer.render("wow http://example.org such linked").toString());
+        assertEquals("<a href=\"mailto:foo@example.com\">foo@example.com</a>",
+                renderer.render("foo@example.com").toString());
+        assertEquals("<a href=\"http://www.example.com\">www.example.com</a>.",
+                renderer.render("www.example.com.").toString());
+    }
+
+    @Test
+    public void escaping() {
+        assertEquals("a &lt;b&gt; &amp; &quot;c&quot; &#39;d&#39;", renderer.render("a <b> & \"c\" 'd'").toString());
+        assertEquals("&lt;<a href=\"http://example.org/?a=1&amp;b=&#39;2&#39;\">" +
+                        "http://example.org/?a=1&amp;b=&#39;2&#39;</a>&gt;",
+                renderer.render("<http://example.org/?a=1&b='2'>").toString());
+    }
+
+    @Test
+    public void unchangedInputIsReturned() {
+        String input = "no links or special characters here";
+        assertSame(input, renderer.render(input));
+        StringBuilder sb = new StringBuilder("foo");
+        assertSame(sb, renderer.render(sb));
+    }
+
+    @Test
+    public void attributes() {
+        HtmlRenderer renderer = HtmlRenderer.builder()
+                .linkExtractor(LinkExtractor.builder().linkTypes(LinkType.URL).build())
+                .rel("nofollow noopener")
+                .target("_blank")
+                .cssClass("a\"b")
+                .build();
+        assertEquals("<a href=\"http://example.org\" rel=\"nofollow noopener\" target=\"_blank\" " +
+                        "class=\"a&quot;b\">http://example.org</a> foo@example.com",
+                renderer.render("http://example.org foo@example.com").toString());
+    }
+
+    @Test
+    public void disallowedSchemes() {
+        assertEquals("click javascript://%0Aalert(document.cookie)",
+                renderer.render("click javascript://%0Aalert(document.cookie)").toString());
+        assertEquals("JavaScript://%0Aalert(1) &lt;b&gt;", renderer.render("JavaScript://%0Aalert(1) <b>").toString());
+        assertEquals("data://text/html;base64,PHNjcmlwdD4=",
+                renderer.render("data://text/html;base64,PHNjcmlwdD4=").toString());
+        assertEquals("vbscript://msgbox(1) <a href=\"https://example.org\">https://example.org</a>",
+                renderer.render("vbscript://msgbox(1) https://example.org").toString());
+        assertEquals("<a href=\"HTTP://example.org\">HTTP://example.org</a> " +
+                        "<a href=\"ftp://example.org\">ftp://example.org</a>",
+                renderer.render("HTTP://example.org ftp://example.org").toString());
+    }
+
+    @Test
+    public void allowedSchemes() {
+        HtmlRenderer renderer = HtmlRenderer.builder().allowedSchemes("HTTPS", "ssh").build();
+        assertEquals("<a href=\"https://example.org\">https://example.org</a> " +
+                        "<a href=\"ssh://example.org\">ssh://example.org</a> " +
+                        "http://example.org foo@example.com www.example.com",
+                renderer.render("https://example.org ssh://example.org http://example.org foo@example.com " +
+                        "www.example.com").toString());
+    }
+
+    @Test
+    public void appendable() throws IOException {
+        StringWriter writer = new StringWriter();
+        writer.write("x");
+        renderer.render("a & http://example.org", writer);
+        assertEquals("xa &amp; <a href=\"http://example.org\">http://example.org</a>", writer.toString());
+    }
+
+    @Test
+    public void nullArguments() {
+        assertThrows(NullPointerException.class, () -> renderer.render(null));
+        assertThrows(NullPointerException.class, () -> renderer.render("", null));
+        assertThrows(NullPointerException.class, () -> HtmlRenderer.builder().linkExtractor(null));
+        assertThrows(NullPointerException.class, () -> HtmlRenderer.builder().allowedSchemes((String[]) null));
+    }
+}
@@ -0,0 +1,59 @@
+package org.nibor.autolink;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares updating the links of a 1 MB text after typing a character using
+ * {@link LinkExtractor#updateLinks(CharSequence, List, int, int, int)} with extracting all links again.
+ */
+@State(Scope.Benchmark)
+public class IncrementalBenchmark {
+
+    private static final List<String> WORDS = Arrays.asList(
+            "Lorem ", "ipsum ", "dolor ", "sit ", "amet, ", "with ", "we ", "know ", "(how) ", "it: ", "\n",
+            "http://example.com/path/to/some_page?query=value&other=1 ", "www.something.com/foo ",
+            "foo.bar+tag@example.com "
+    );
+
+    private StringBuilder text;
+    private List<LinkSpan> links;
+    private int offset;
+    private LinkExtractor linkExtractor;
+
+    public static void main(String[] args) throws Exception {
+        Main.main(args);
+    }
+
+    @Setup
+    public void setup() {
+        Random random = new Random(1);
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() < 1024 * 1024) {
+            sb.append(WORDS.get(random.nextInt(WORDS.size())));
+        }
+        linkExtractor = LinkExtractor.builder().build();
+        links = linkExtractor.extractLinks(sb, Integer.MAX_VALUE);
+        // Type a character in the middle of the text
+        offset = sb.length() / 2;
+        sb.insert(offset, 'x');
+        text = sb;
+    }
+
+    @Benchmark
+    public List<LinkSpan> update() {
+        return linkExtractor.updateLinks(text, links, offset, 0, 1);
+    }
+
+    @Benchmark
+    public List<LinkSpan> full() {
+        return linkExtractor.extractLinks(text, Integer.MAX_VALUE);
+    }
+}
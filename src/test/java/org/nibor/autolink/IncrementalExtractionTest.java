@@ -0,0 +1,93 @@
+package org.nibor.autolink;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class IncrementalExtractionTest {
+
+    private final LinkExtractor linkExtractor = LinkExtractor.builder().build();
+
+    @Test
+    public void insertInLink() {
+        StringBuilder text = new StringBuilder("foo http://example.org bar a@example.com");
+        List<LinkSpan> links = linkExtractor.extractLinks(text, Integer.MAX_VALUE);
+        text.insert(12, "test.");
+        links = linkExtractor.updateLinks(text, links, 12, 0, 5);
+        assertEquals(List.of("URL 4-27", "EMAIL 32-45"), TestInputs.format(links));
+    }
+
+    @Test
+    public void editBeforeLinkStart() {
+        // The local part of an email address starts before the edit
+        StringBuilder text = new StringBuilder("foo bar@example.com");
+        List<LinkSpan> links = linkExtractor.extractLinks(text, Integer.MAX_VALUE);
+        assertEquals(List.of("EMAIL 4-19"), TestInputs.format(links));
+        text.replace(5, 6, " ");
+        links = linkExtractor.updateLinks(text, links, 5, 1, 1);
+        assertEquals(List.of("EMAIL 6-19"), TestInputs.format(links));
+    }
+
+    @Test
+    public void removeBoundary() {
+        StringBuilder text = new StringBuilder("http://example.org foo.com/bar a@b.com");
+        List<LinkSpan> links = linkExtractor.extractLinks(text, Integer.MAX_VALUE);
+        text.delete(18, 19);
+        links = linkExtractor.updateLinks(text, links, 18, 1, 0);
+        assertEquals(List.of("URL 0-29", "EMAIL 30-37"), TestInputs.format(links));
+    }
+
+    @Test
+    public void unchangedLinksReused() {
+        StringBuilder text = new StringBuilder("http://example.org foo a@b.com");
+        List<LinkSpan> links = linkExtractor.extractLinks(text, Integer.MAX_VALUE);
+        text.replace(19, 22, "bar");
+        List<LinkSpan> updated = linkExtractor.updateLinks(text, links, 19, 3, 3);
+        assertSame(links.get(0), updated.get(0));
+        assertSame(links.get(1), updated.get(1));
+    }
+
+    @Test
+    public void randomEdits() {
+        checkRandomEdits(linkExtractor, 1);
+        checkRandomEdits(LinkExtractor.builder().linkTypes(EnumSet.of(LinkType.EMAIL)).build(), 2);
+        checkRandomEdits(LinkExtractor.builder().maxLinkLength(20).maxLookbehind(10).build(), 3);
+    }
+
+    @Test
+    public void invalidArguments() {
+        List<LinkSpan> links = List.of();
+        assertThrows(NullPointerException.class, () -> linkExtractor.updateLinks(null, links, 0, 0, 0));
+        assertThrows(NullPointerException.class, () -> linkExtractor.updateLinks("foo", null, 0, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> linkExtractor.updateLinks("foo", links, 0, -1, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> linkExtractor.updateLinks("foo", links, 2, 0, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> linkExtractor.updateLinks("foo", links, -1, 0, 0));
+    }
+
+    private static void checkRandomEdits(LinkExtractor extractor, long seed) {
+        Random random = new Random(seed);
+        for (int document = 0; document < 50; document++) {
+            StringBuilder text = new StringBuilder(TestInputs.randomText(random));
+            List<LinkSpan> links = extractor.extractLinks(text, Integer.MAX_VALUE);
+            for (int edit = 0; edit < 100; edit++) {
+                int offset = random.nextInt(text.length() + 1);
+                int removedLength = random.nextInt(Math.min(text.length() - offset, 10) + 1);
+                String inserted = TestInputs.randomText(random, random.nextInt(10));
+                String before = text.toString();
+                text.replace(offset, offset + removedLength, inserted);
+
+                links = extractor.updateLinks(text, links, offset, removedLength, inserted.length());
+                List<LinkSpan> expected = extractor.extractLinks(text, Integer.MAX_VALUE);
+                assertEquals(TestInputs.format(expected), TestInputs.format(links),
+                        "Edit of \"" + before + "\" at " + offset + " removing " + removedLength + " inserting \"" +
+                                inserted + "\" to \"" + text + "\"");
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package org.nibor.autolink;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.CharBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures extraction from different input types, with the extractor having seen either only the measured type
+ * ("single") or all of them ("mixed") before, like in an application that passes different types.
+ */
+@State(Scope.Benchmark)
+public class InputTypeBenchmark {
+
+    private static final List<String> WORDS = Arrays.asList(
+            "Lorem ", "ipsum ", "dolor ", "sit ", "amet, ", "with ", "we ", "know ", "(how) ", "it: ",
+            "http://example.com/path/to/some_page?query=value&other=1 ", "www.something.com/foo ",
+            "foo.bar+tag@example.com ", "https://en.wikipedia.org/wiki/Link_(The_Legend_of_Zelda) "
+    );
+
+    @Param({"single", "mixed"})
+    public String callSite;
+
+    private String string;
+    private StringBuilder stringBuilder;
+    private CharBuffer charBuffer;
+    private LinkExtractor linkExtractor;
+    private final LinkSpanBuffer links = new LinkSpanBuffer();
+
+    public static void main(String[] args) throws Exception {
+        Main.main(args);
+    }
+
+    @Setup
+    public void setup() {
+        Random random = new Random(1);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 50_000; i++) {
+            sb.append(WORDS.get(random.nextInt(WORDS.size())));
+        }
+        string = sb.toString();
+        stringBuilder = sb;
+        charBuffer = CharBuffer.wrap(string.toCharArray());
+        linkExtractor = LinkExtractor.builder().build();
+
+        if (callSite.equals("mixed")) {
+            // Make the extractor see all input types before it gets compiled
+            for (int i = 0; i < 50; i++) {
+                extract(string);
+                extract(stringBuilder);
+                extract(charBuffer);
+            }
+        }
+    }
+
+    @Benchmark
+    public int string() {
+        return extract(string);
+    }
+
+    @Benchmark
+    public int stringBuilder() {
+        return extract(stringBuilder);
+    }
+
+    @Benchmark
+    public int charBuffer() {
+        return extract(charBuffer);
+    }
+
+    private int extract(CharSequence input) {
+        links.clear();
+        linkExtractor.extractLinks(input, links);
+        return links.size();
+    }
+}
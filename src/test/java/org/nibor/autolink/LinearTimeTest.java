@@ -0,0 +1,103 @@
+package org.nibor.autolink;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that extraction reads each character of the input only a constant number of times, even for inputs that are
+ * made to make the scanners redo work.
+ */
+public class LinearTimeTest {
+
+    // Maximum number of reads per input character
+    private static final int MAX_READS_PER_CHAR = 8;
+
+    private final List<LinkExtractor> linkExtractors = List.of(
+            LinkExtractor.builder().build(),
+            LinkExtractor.builder().forwardOnly(true).build());
+
+    @Test
+    public void adversarial() {
+        for (LinkExtractor linkExtractor : linkExtractors) {
+            for (Map.Entry<String, IntFunction<String>> entry : adversarialInputs().entrySet()) {
+                // Also compare to a smaller input, so that growth is noticed before it reaches the limit
+                double small = readsPerChar(linkExtractor, entry.getValue().apply(1000));
+                double large = readsPerChar(linkExtractor, entry.getValue().apply(100_000));
+                String name = entry.getKey();
+                assertTrue(large <= MAX_READS_PER_CHAR, name + ": " + large + " reads per char");
+                assertTrue(large <= small * 1.5 + 1, name + ": " + small + " reads per char grew to " + large);
+            }
+        }
+    }
+
+    @Test
+    public void longUrl() {
+        String input = "http://example.org/" + "a".repeat(10 * 1024 * 1024);
+        for (LinkExtractor linkExtractor : linkExtractors) {
+            double reads = readsPerChar(linkExtractor, input);
+            assertTrue(reads <= MAX_READS_PER_CHAR, reads + " reads per char");
+        }
+    }
+
+    static Map<String, IntFunction<String>> adversarialInputs() {
+        Map<String, IntFunction<String>> inputs = new LinkedHashMap<>();
+        inputs.put("local part then @", n -> "a".repeat(n) + "@".repeat(n));
+        inputs.put("@ separated", n -> "a@".repeat(n));
+        inputs.put("dotted local part", n -> "a.".repeat(n) + "@");
+        inputs.put("domain without dot", n -> "a@" + "b".repeat(n) + "@".repeat(n));
+        inputs.put("domain with hyphens", n -> "a@b-".repeat(n));
+        inputs.put("scheme separators", n -> "x://".repeat(n));
+        inputs.put("invalid schemes", n -> "1a://".repeat(n));
+        inputs.put("colons", n -> "a:".repeat(n));
+        inputs.put("scheme chars", n -> "a+.-".repeat(n) + "://");
+        inputs.put("url then punctuation", n -> "http://a" + "?!.,:;".repeat(n));
+        inputs.put("url then separators", n -> "a://b" + "(://".repeat(n));
+        inputs.put("nested brackets", n -> "a://" + "(".repeat(n) + "b" + ")".repeat(n));
+        inputs.put("unbalanced brackets", n -> "(".repeat(n) + "a://b" + ")".repeat(n));
+        inputs.put("quotes", n -> "a://b" + "'".repeat(n));
+        inputs.put("www", n -> "www.".repeat(n));
+        inputs.put("www with separators", n -> "-www.".repeat(n));
+        inputs.put("www without dot", n -> "-www.a)".repeat(n));
+        inputs.put("w", n -> "w".repeat(n));
+        return inputs;
+    }
+
+    private static double readsPerChar(LinkExtractor linkExtractor, String input) {
+        CountingCharSequence counting = new CountingCharSequence(input);
+        for (LinkSpan ignored : linkExtractor.extractLinks(counting)) {
+        }
+        return (double) counting.reads / input.length();
+    }
+
+    private static class CountingCharSequence implements CharSequence {
+
+        private final String s;
+        private long reads = 0;
+
+        CountingCharSequence(String s) {
+            this.s = s;
+        }
+
+        @Override
+        public int length() {
+            return s.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            reads++;
+            return s.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return s.subSequence(start, end);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package org.nibor.autolink;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class LinkConsumerTest {
+
+    private final LinkExtractor linkExtractor = LinkExtractor.builder().build();
+
+    @Test
+    public void spans() {
+        String input = "foo http://example.org a@example.com";
+        final List<String> spans = new ArrayList<>();
+        linkExtractor.extractSpans(input, new SpanConsumer() {
+            @Override
+            public void accept(LinkType type, int beginIndex, int endIndex) {
+                spans.add(type + " " + beginIndex + "-" + endIndex);
+            }
+
+            @Override
+            public void acceptText(int beginIndex, int endIndex) {
+                spans.add(beginIndex + "-" + endIndex);
+            }
+        });
+        assertEquals(List.of("0-4", "URL 4-22", "22-23", "EMAIL 23-36"), spans);
+    }
+
+    @Test
+    public void inputTypes() {
+        String input = "foo http://example.org a@example.com";
+        String expected = "LinkSpanBuffer[URL 4-22, EMAIL 23-36]";
+
+        LinkSpanBuffer links = new LinkSpanBuffer();
+        linkExtractor.extractLinks(new StringBuilder(input), links);
+        assertEquals(expected, links.toString());
+
+        links.clear();
+        linkExtractor.extractLinks(new StringBuffer(input), links);
+        assertEquals(expected, links.toString());
+
+        // Only from position to limit
+        CharBuffer charBuffer = CharBuffer.wrap(("x@" + input + "://").toCharArray());
+        charBuffer.position(2).limit(2 + input.length());
+        links.clear();
+        linkExtractor.extractLinks(charBuffer.slice(), links);
+        assertEquals(expected, links.toString());
+        links.clear();
+        linkExtractor.extractLinks(charBuffer, links);
+        assertEquals(expected, links.toString());
+        assertEquals(2, charBuffer.position());
+
+        links.clear();
+        linkExtractor.extractLinks(CharBuffer.wrap(input), links);
+        assertEquals(expected, links.toString());
+
+        links.clear();
+        linkExtractor.extractLinks(("x@" + input).toCharArray(), 2, input.length(), links);
+        assertEquals(expected, links.toString());
+    }
+
+    @Test
+    public void noAllocation() throws Exception {
+        Method getAllocatedBytes = getAllocatedBytesMethod();
+        assumeTrue(getAllocatedBytes != null, "allocated bytes not supported by JVM");
+        Object threadMXBean = getThreadMXBean();
+
+        String input = "wow http://example.org/foo_(bar) such www.example.com linked foo@example.com yes";
+        CountingConsumer consumer = new CountingConsumer();
+        // Warm up so that lazy initialization is done and code is compiled
+        for (int i = 0; i < 20_000; i++) {
+            linkExtractor.extractLinks(input, consumer);
+            linkExtractor.extractSpans(input, consumer);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long overhead = -((long) getAllocatedBytes.invoke(threadMXBean, threadId) -
+                (long) getAllocatedBytes.invoke(threadMXBean, threadId));
+        long before = (long) getAllocatedBytes.invoke(threadMXBean, threadId);
+        for (int i = 0; i < 10_000; i++) {
+            linkExtractor.extractLinks(input, consumer);
+            linkExtractor.extractSpans(input, consumer);
+        }
+        long after = (long) getAllocatedBytes.invoke(threadMXBean, threadId);
+
+        assertTrue(consumer.links > 0);
+        long allocated = after - before - overhead;
+        // Allow for a bit of noise from the measurement itself, but nothing per call
+        assertTrue(allocated < 1024, "allocated " + allocated + " bytes");
+    }
+
+    private static Object getThreadMXBean() throws Exception {
+        // Using reflection as the module doesn't require java.management
+        return Class.forName("java.lang.management.ManagementFactory").getMethod("getThreadMXBean").invoke(null);
+    }
+
+    private static Method getAllocatedBytesMethod() throws Exception {
+        try {
+            Object threadMXBean = getThreadMXBean();
+            Class<?> sunThreadMXBean = Class.forName("com.sun.management.ThreadMXBean");
+            if (!sunThreadMXBean.isInstance(threadMXBean)) {
+                return null;
+            }
+            Method method = sunThreadMXBean.getMethod("getThreadAllocatedBytes", long.class);
+            if ((long) method.invoke(threadMXBean, Thread.currentThread().getId()) < 0) {
+                return null;
+            }
+            return method;
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+    }
+
+    private static class CountingConsumer implements SpanConsumer {
+        int links = 0;
+        int texts = 0;
+
+        @Override
+        public void accept(LinkType type, int beginIndex, int endIndex) {
+            links++;
+        }
+
+        @Override
+        public void acceptText(int beginIndex, int endIndex) {
+            texts++;
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package org.nibor.autolink;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures extraction from a paste without any whitespace but with many link candidates, at different sizes, with a
+ * maximum link length that the paste is longer than. The time per MB should stay the same as the paste grows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LinkLengthBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int megabytes;
+
+    private String input;
+    private LinkExtractor linkExtractor;
+    private final LinkSpanBuffer links = new LinkSpanBuffer();
+
+    public static void main(String[] args) throws Exception {
+        Main.main(args);
+    }
+
+    @Setup
+    public void setup() {
+        String unit = "a@b.c/x://";
+        input = "http://example.org/" + unit.repeat(megabytes * 1024 * 1024 / unit.length());
+        linkExtractor = LinkExtractor.builder().maxLinkLength(2048).build();
+    }
+
+    @Benchmark
+    public int extract() {
+        links.clear();
+        linkExtractor.extractLinks(input, links);
+        return links.size();
+    }
+}
@@ -0,0 +1,186 @@
+package org.nibor.autolink;
+
+import org.junit.jupiter.api.Test;
+import org.nibor.autolink.internal.StreamExtractor;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LinkLengthLimitTest {
+
+    @Test
+    public void maxLinkLength() {
+        LinkExtractor linkExtractor = LinkExtractor.builder().maxLinkLength(18).build();
+        assertEquals(List.of("URL 0-18"), extract(linkExtractor, "http://example.org"));
+        assertEquals(List.of(), extract(linkExtractor, "http://example.org/"));
+        assertEquals(List.of("EMAIL 0-15"), extract(linkExtractor, "foo@example.com"));
+        assertEquals(List.of(), extract(linkExtractor, "foo@sub.example.com"));
+        assertEquals(List.of("WWW 0-15"), extract(linkExtractor, "www.example.com"));
+        assertEquals(List.of(), extract(linkExtractor, "www.example.com/foo"));
+
+        // Trailing characters that aren't part of the link don't count
+        assertEquals(List.of("URL 0-18"), extract(linkExtractor, "http://example.org."));
+        assertEquals(List.of("URL 0-18"), extract(linkExtractor, "http://example.org..."));
+        assertEquals(List.of("URL 1-19"), extract(linkExtractor, "(http://example.org)"));
+    }
+
+    @Test
+    public void linksAfterLongLink() {
+        LinkExtractor linkExtractor = LinkExtractor.builder().maxLinkLength(20).build();
+        assertEquals(List.of("URL 39-51"),
+                extract(linkExtractor, "averyveryverylonglocalpart@example.com,http://x.org"));
+        assertEquals(List.of("EMAIL 0-15"), extract(linkExtractor, "foo@example.com," + "a".repeat(100)));
+        assertEquals(List.of("URL 34-46"),
+                extract(linkExtractor, "www.example.com/" + "a".repeat(17) + ")http://x.org"));
+        assertEquals(List.of("EMAIL 37-44", "URL 45-57"),
+                extract(linkExtractor, "http://example.org/" + "a".repeat(16) + ") a@x.org,http://x.org"));
+
+        // The long link is skipped as a whole, nothing is extracted from its parts
+        assertEquals(List.of(), extract(linkExtractor, "http://example.org/" + "a".repeat(20) + "/foo@example.com"));
+        assertEquals(List.of("URL 155-173"), extract(linkExtractor,
+                "http://example.org/" + "a".repeat(100) + ",foo@example.com,http://example.org http://example.org"));
+    }
+
+    @Test
+    public void sameAsWithoutLimit() {
+        Random random = new Random(42);
+        LinkExtractor unlimited = LinkExtractor.builder().build();
+        for (int i = 0; i < 1000; i++) {
+            int maxLinkLength = 1 + random.nextInt(30);
+            LinkExtractor linkExtractor = LinkExtractor.builder().maxLinkLength(maxLinkLength).build();
+            String input = TestInputs.randomText(random, 1 + random.nextInt(100));
+            List<String> expected = new ArrayList<>();
+            for (LinkSpan link : unlimited.extractLinks(input)) {
+                if (link.getEndIndex() - link.getBeginIndex() <= maxLinkLength) {
+                    expected.add(link.getType() + " " + link.getBeginIndex() + "-" + link.getEndIndex());
+                }
+            }
+            assertEquals(expected, extract(linkExtractor, input), input + " " + maxLinkLength);
+        }
+    }
+
+    @Test
+    public void maxLookbehind() {
+        LinkExtractor linkExtractor = LinkExtractor.builder().maxLookbehind(5).build();
+        assertEquals(List.of("URL 0-17"), extract(linkExtractor, "ftp://example.org"));
+        assertEquals(List.of("URL 0-19"), extract(linkExtractor, "https://example.org"));
+        assertEquals(List.of(), extract(linkExtractor, "foobar://example.org"));
+
+        // Only the scheme counts, not separators and digits before it
+        assertEquals(List.of("URL 1-14"), extract(linkExtractor, ".https://x.org"));
+        assertEquals(List.of("URL 1-14"), extract(linkExtractor, "-https://x.org"));
+        assertEquals(List.of("URL 3-16"), extract(linkExtractor, "..+https://x.org"));
+        assertEquals(List.of("URL 2-15"), extract(linkExtractor, "1.https://x.org"));
+        assertEquals(List.of(), extract(linkExtractor, "a.https://x.org"));
+        assertEquals(List.of("EMAIL 0-17"), extract(linkExtractor, "fo.ba@example.com"));
+        assertEquals(List.of(), extract(linkExtractor, "foo.bar@example.com"));
+        assertEquals(List.of(), extract(linkExtractor, "a.foob@example.com"));
+    }
+
+    @Test
+    public void utf8CountsChars() {
+        LinkExtractor lookbehind = LinkExtractor.builder().maxLookbehind(3).build();
+        assertEquals(List.of("EMAIL 0-8"), extract(lookbehind, "ää@x.org"));
+        assertEquals(List.of("EMAIL 0-8"), extractUtf8(lookbehind, "ää@x.org"));
+        assertEquals(List.of(), extractUtf8(lookbehind, "äää.@x.org"));
+
+        LinkExtractor length = LinkExtractor.builder().maxLinkLength(16).build();
+        assertEquals(List.of("URL 0-16"), extractUtf8(length, "http://ä.org/äää"));
+        assertEquals(List.of("URL 0-16"), extractUtf8(length, "http://ä.org/😀ä"));
+        assertEquals(List.of(), extractUtf8(length, "http://ä.org/😀ää"));
+    }
+
+    @Test
+    public void utf8SameAsDecoded() {
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            LinkExtractor linkExtractor = LinkExtractor.builder()
+                    .maxLinkLength(1 + random.nextInt(30))
+                    .maxLookbehind(random.nextInt(10))
+                    .forwardOnly(random.nextBoolean())
+                    .build();
+            String input = TestInputs.randomText(random, 1 + random.nextInt(100));
+            assertEquals(extract(linkExtractor, input), extractUtf8(linkExtractor, input), input);
+        }
+    }
+
+    @Test
+    public void invalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> LinkExtractor.builder().maxLinkLength(0));
+        assertThrows(IllegalArgumentException.class, () -> LinkExtractor.builder().maxLookbehind(-1));
+    }
+
+    @Test
+    public void linearWithLongLinks() {
+        // Long links are skipped as a whole, so the candidates in them are not scanned again
+        LinkExtractor linkExtractor = LinkExtractor.builder().maxLinkLength(100).build();
+        for (String unit : new String[]{"a://b", "a@b", "-www.b", "a@b-"}) {
+            String input = unit.repeat(100_000);
+            CountingCharSequence counting = new CountingCharSequence(input);
+            for (LinkSpan ignored : linkExtractor.extractLinks(counting)) {
+            }
+            assertTrue(counting.reads <= 4L * input.length(), unit + ": " + counting.reads + " reads");
+        }
+    }
+
+    @Test
+    public void sameInChunks() throws Exception {
+        Random random = new Random(42);
+        for (int i = 0; i < 200; i++) {
+            LinkExtractor linkExtractor = LinkExtractor.builder()
+                    .maxLinkLength(1 + random.nextInt(30))
+                    .maxLookbehind(random.nextInt(10))
+                    .build();
+            String input = TestInputs.randomText(random, 500);
+
+            List<String> streamed = new ArrayList<>();
+            StreamExtractor streamExtractor = new StreamExtractor(linkExtractor, 1 + random.nextInt(50),
+                    link -> streamed.add(link.getType() + " " + link.getBeginOffset() + "-" + link.getEndOffset()));
+            streamExtractor.write(input);
+            streamExtractor.finish();
+            assertEquals(extract(linkExtractor, input), streamed, input.replace("\n", "\\n") + " " + i);
+        }
+    }
+
+    private static List<String> extract(LinkExtractor linkExtractor, String input) {
+        return TestInputs.format(linkExtractor.extractLinks(input));
+    }
+
+    private static List<String> extractUtf8(LinkExtractor linkExtractor, String input) {
+        ByteBuffer buffer = ByteBuffer.wrap(input.getBytes(StandardCharsets.UTF_8));
+        return TestInputs.format(Autolink.toUtf16(buffer, linkExtractor.extractUtf8Links(buffer)));
+    }
+
+    private static class CountingCharSequence implements CharSequence {
+
+        private final String s;
+        private long reads = 0;
+
+        CountingCharSequence(String s) {
+            this.s = s;
+        }
+
+        @Override
+        public int length() {
+            return s.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            reads++;
+            return s.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            return s.subSequence(start, end);
+        }
+    }
+}
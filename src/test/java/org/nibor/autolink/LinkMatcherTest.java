@@ -0,0 +1,62 @@
+package org.nibor.autolink;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LinkMatcherTest {
+
+    private final LinkExtractor linkExtractor = LinkExtractor.builder().build();
+
+    @Test
+    public void find() {
+        LinkMatcher matcher = linkExtractor.matcher("foo http://example.org a@example.com");
+        assertTrue(matcher.find());
+        assertEquals(LinkType.URL, matcher.type());
+        assertEquals(4, matcher.start());
+        assertEquals(22, matcher.end());
+        assertTrue(matcher.find());
+        assertEquals(LinkType.EMAIL, matcher.type());
+        assertEquals(23, matcher.start());
+        assertEquals(36, matcher.end());
+        assertFalse(matcher.find());
+        assertFalse(matcher.find());
+    }
+
+    @Test
+    public void reset() {
+        LinkMatcher matcher = linkExtractor.matcher("www.example.org");
+        assertTrue(matcher.find());
+        assertFalse(matcher.find());
+
+        matcher.reset();
+        assertTrue(matcher.find());
+        assertEquals(LinkType.WWW, matcher.type());
+
+        assertTrue(matcher.reset("a b@example.com").find());
+        assertEquals(LinkType.EMAIL, matcher.type());
+        assertEquals(2, matcher.start());
+        assertFalse(matcher.find());
+
+        assertFalse(matcher.reset("").find());
+    }
+
+    @Test
+    public void noMatch() {
+        LinkMatcher matcher = linkExtractor.matcher("no links");
+        assertThrows(IllegalStateException.class, matcher::start);
+        assertFalse(matcher.find());
+        assertThrows(IllegalStateException.class, matcher::type);
+        assertThrows(IllegalStateException.class, matcher::end);
+    }
+
+    @Test
+    public void nullInput() {
+        assertThrows(NullPointerException.class, () -> linkExtractor.matcher(null));
+        LinkMatcher matcher = linkExtractor.matcher("");
+        assertThrows(NullPointerException.class, () -> matcher.reset(null));
+    }
+}
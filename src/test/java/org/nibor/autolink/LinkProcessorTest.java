@@ -0,0 +1,269 @@
+package org.nibor.autolink;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.concurrent.SubmissionPublisher;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LinkProcessorTest {
+
+    private final LinkExtractor linkExtractor = LinkExtractor.builder().build();
+
+    @Test
+    public void linksAcrossChunks() throws IOException {
+        String input = "x http://example.org/foo(bar) y a@example.com z www.example.com";
+        for (int chunkSize = 1; chunkSize <= input.length(); chunkSize++) {
+            ChunkPublisher publisher = new ChunkPublisher(chunk(input, chunkSize));
+            RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+            LinkProcessor processor = linkExtractor.processor();
+            processor.subscribe(subscriber);
+            publisher.subscribe(processor);
+            assertEquals(extractFromReader(input), subscriber.links, "chunk size " + chunkSize);
+            assertTrue(subscriber.completed);
+        }
+    }
+
+    @Test
+    public void sameAsReader() throws IOException {
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            String input = TestInputs.randomText(random);
+            ChunkPublisher publisher = new ChunkPublisher(chunk(input, 1 + random.nextInt(16)));
+            RecordingSubscriber subscriber = new RecordingSubscriber(1 + random.nextInt(3));
+            LinkProcessor processor = linkExtractor.processor();
+            processor.subscribe(subscriber);
+            publisher.subscribe(processor);
+            assertEquals(extractFromReader(input), subscriber.links, input);
+            assertTrue(subscriber.completed);
+        }
+    }
+
+    @Test
+    public void submissionPublisher() throws Exception {
+        String input = TestInputs.randomText(new Random(1), 100_000);
+        LinkProcessor processor = linkExtractor.processor();
+        RecordingSubscriber subscriber = new RecordingSubscriber(1);
+        processor.subscribe(subscriber);
+        try (SubmissionPublisher<CharSequence> publisher = new SubmissionPublisher<>()) {
+            publisher.subscribe(processor);
+            for (String chunk : chunk(input, 1000)) {
+                publisher.submit(chunk);
+            }
+        }
+        subscriber.terminated.get(10, TimeUnit.SECONDS);
+        assertTrue(subscriber.completed);
+        assertEquals(extractFromReader(input), subscriber.links);
+    }
+
+    @Test
+    public void backpressure() {
+        ChunkPublisher publisher = new ChunkPublisher(List.of("http://a.com ", "http://b.com http://c.com ",
+                "http://d.com"));
+        RecordingSubscriber subscriber = new RecordingSubscriber(0);
+        LinkProcessor processor = linkExtractor.processor();
+        processor.subscribe(subscriber);
+        publisher.subscribe(processor);
+        assertEquals(0, publisher.requested);
+
+        subscriber.subscription.request(1);
+        assertEquals(List.of("URL 0-12 http://a.com"), subscriber.links);
+        assertEquals(1, publisher.requested);
+
+        // The second chunk has two links, the second one is queued until requested
+        subscriber.subscription.request(1);
+        assertEquals(2, subscriber.links.size());
+        assertEquals(2, publisher.requested);
+        subscriber.subscription.request(1);
+        assertEquals(3, subscriber.links.size());
+        assertEquals(2, publisher.requested);
+
+        subscriber.subscription.request(1);
+        assertEquals(List.of("URL 0-12 http://a.com", "URL 13-25 http://b.com", "URL 26-38 http://c.com",
+                "URL 39-51 http://d.com"), subscriber.links);
+        assertTrue(subscriber.completed);
+    }
+
+    @Test
+    public void cancel() {
+        ChunkPublisher publisher = new ChunkPublisher(List.of("http://a.com ", "http://b.com "));
+        RecordingSubscriber subscriber = new RecordingSubscriber(0);
+        LinkProcessor processor = linkExtractor.processor();
+        processor.subscribe(subscriber);
+        publisher.subscribe(processor);
+        subscriber.subscription.request(1);
+        subscriber.subscription.cancel();
+        assertTrue(publisher.cancelled);
+        subscriber.subscription.request(1);
+        assertEquals(1, subscriber.links.size());
+        assertFalse(subscriber.completed);
+        assertNull(subscriber.error);
+    }
+
+    @Test
+    public void invalidRequest() {
+        ChunkPublisher publisher = new ChunkPublisher(List.of("http://a.com "));
+        RecordingSubscriber subscriber = new RecordingSubscriber(0);
+        LinkProcessor processor = linkExtractor.processor();
+        processor.subscribe(subscriber);
+        publisher.subscribe(processor);
+        subscriber.subscription.request(0);
+        assertInstanceOf(IllegalArgumentException.class, subscriber.error);
+        assertTrue(publisher.cancelled);
+    }
+
+    @Test
+    public void upstreamError() {
+        LinkProcessor processor = linkExtractor.processor();
+        RecordingSubscriber subscriber = new RecordingSubscriber(Long.MAX_VALUE);
+        processor.subscribe(subscriber);
+        processor.onSubscribe(new Flow.Subscription() {
+            @Override
+            public void request(long n) {
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+        processor.onNext("http://a.com ");
+        IllegalStateException error = new IllegalStateException("test");
+        processor.onError(error);
+        assertEquals(List.of("URL 0-12 http://a.com"), subscriber.links);
+        assertEquals(error, subscriber.error);
+    }
+
+    @Test
+    public void secondSubscriber() {
+        LinkProcessor processor = linkExtractor.processor();
+        processor.subscribe(new RecordingSubscriber(0));
+        RecordingSubscriber second = new RecordingSubscriber(0);
+        processor.subscribe(second);
+        assertInstanceOf(IllegalStateException.class, second.error);
+    }
+
+    @Test
+    public void nullChunk() {
+        LinkProcessor processor = linkExtractor.processor();
+        assertThrows(NullPointerException.class, () -> processor.onNext(null));
+        assertThrows(NullPointerException.class, () -> processor.subscribe(null));
+    }
+
+    private List<String> extractFromReader(String input) throws IOException {
+        List<String> links = new ArrayList<>();
+        linkExtractor.extractLinks(new StringReader(input), link -> links.add(TestInputs.format(link)));
+        return links;
+    }
+
+    private static List<String> chunk(String input, int chunkSize) {
+        List<String> chunks = new ArrayList<>();
+        for (int i = 0; i < input.length(); i += chunkSize) {
+            chunks.add(input.substring(i, Math.min(i + chunkSize, input.length())));
+        }
+        return chunks;
+    }
+
+    /**
+     * Publishes the chunks synchronously on request, and records the requests.
+     */
+    private static class ChunkPublisher implements Flow.Publisher<CharSequence> {
+
+        private final List<String> chunks;
+        private int index = 0;
+        private long requested = 0;
+        private boolean cancelled = false;
+
+        ChunkPublisher(List<String> chunks) {
+            this.chunks = chunks;
+        }
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super CharSequence> subscriber) {
+            subscriber.onSubscribe(new ChunkSubscription(subscriber));
+        }
+
+        private class ChunkSubscription implements Flow.Subscription {
+
+            private final Flow.Subscriber<? super CharSequence> subscriber;
+
+            ChunkSubscription(Flow.Subscriber<? super CharSequence> subscriber) {
+                this.subscriber = subscriber;
+            }
+
+            @Override
+            public void request(long n) {
+                requested += n;
+                while (n-- > 0 && !cancelled && index < chunks.size()) {
+                    subscriber.onNext(chunks.get(index++));
+                }
+                if (!cancelled && index == chunks.size()) {
+                    index++;
+                    subscriber.onComplete();
+                }
+            }
+
+            @Override
+            public void cancel() {
+                cancelled = true;
+            }
+        }
+    }
+
+    private static class RecordingSubscriber implements Flow.Subscriber<ExtractedLink> {
+
+        private final long batch;
+        private final List<String> links = new ArrayList<>();
+        private final CompletableFuture<Void> terminated = new CompletableFuture<>();
+        private Flow.Subscription subscription;
+        private boolean completed = false;
+        private Throwable error = null;
+
+        /**
+         * @param batch how many links to request initially and after each received one, 0 for manual requests
+         */
+        RecordingSubscriber(long batch) {
+            this.batch = batch;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (batch > 0) {
+                subscription.request(batch);
+            }
+        }
+
+        @Override
+        public void onNext(ExtractedLink item) {
+            links.add(TestInputs.format(item));
+            if (batch > 0 && batch != Long.MAX_VALUE) {
+                subscription.request(1);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            terminated.complete(null);
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+            terminated.complete(null);
+        }
+    }
+}
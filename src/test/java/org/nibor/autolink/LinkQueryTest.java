@@ -0,0 +1,59 @@
+package org.nibor.autolink;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LinkQueryTest {
+
+    private static final String INPUT = "foo http://example.org a@example.com www.example.com";
+
+    private final LinkExtractor linkExtractor = LinkExtractor.builder().build();
+
+    @Test
+    public void containsLink() {
+        assertTrue(linkExtractor.containsLink(INPUT));
+        assertTrue(linkExtractor.containsLink(new StringBuilder(INPUT)));
+        assertFalse(linkExtractor.containsLink("foo http:// a@ www."));
+        assertFalse(linkExtractor.containsLink(""));
+    }
+
+    @Test
+    public void firstLink() {
+        LinkSpan link = linkExtractor.firstLink(INPUT);
+        assertEquals(LinkType.URL, link.getType());
+        assertEquals(4, link.getBeginIndex());
+        assertEquals(22, link.getEndIndex());
+        assertNull(linkExtractor.firstLink("foo"));
+    }
+
+    @Test
+    public void countLinks() {
+        assertEquals(3, linkExtractor.countLinks(INPUT));
+        assertEquals(0, linkExtractor.countLinks("foo"));
+    }
+
+    @Test
+    public void limit() {
+        assertEquals(List.of(), TestInputs.format(linkExtractor.extractLinks(INPUT, 0)));
+        assertEquals(List.of("URL 4-22"), TestInputs.format(linkExtractor.extractLinks(INPUT, 1)));
+        assertEquals(List.of("URL 4-22", "EMAIL 23-36"), TestInputs.format(linkExtractor.extractLinks(INPUT, 2)));
+        assertEquals(List.of("URL 4-22", "EMAIL 23-36", "WWW 37-52"),
+                TestInputs.format(linkExtractor.extractLinks(INPUT, 10)));
+        assertThrows(IllegalArgumentException.class, () -> linkExtractor.extractLinks(INPUT, -1));
+    }
+
+    @Test
+    public void nullInput() {
+        assertThrows(NullPointerException.class, () -> linkExtractor.containsLink(null));
+        assertThrows(NullPointerException.class, () -> linkExtractor.firstLink(null));
+        assertThrows(NullPointerException.class, () -> linkExtractor.countLinks(null));
+        assertThrows(NullPointerException.class, () -> linkExtractor.extractLinks((CharSequence) null, 1));
+    }
+}
@@ -0,0 +1,116 @@
+package org.nibor.autolink;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class LinkRewriteTest {
+
+    private static final String INPUT = "foo http://example.org, a@example.com and www.example.com/x.";
+
+    private static final LinkReplacer TRACKING = (input, type, beginIndex, endIndex, output) -> {
+        output.append("https://t.example/?").append(type.name()).append('=').append(input, beginIndex, endIndex);
+    };
+
+    private static final LinkReplacer SHORTENING = (input, type, beginIndex, endIndex, output) -> {
+        output.append("<").append(Integer.toString(endIndex - beginIndex)).append(">");
+    };
+
+    private final LinkExtractor linkExtractor = LinkExtractor.builder().build();
+
+    @Test
+    public void rewrite() {
+        assertEquals("foo https://t.example/?URL=http://example.org, https://t.example/?EMAIL=a@example.com " +
+                "and https://t.example/?WWW=www.example.com/x.", linkExtractor.rewriteLinks(INPUT, TRACKING));
+        assertEquals("foo <18>, <13> and <17>.", linkExtractor.rewriteLinks(INPUT, SHORTENING));
+    }
+
+    @Test
+    public void noLinks() {
+        String input = "foo bar";
+        assertSame(input, linkExtractor.rewriteLinks(input, TRACKING));
+        assertEquals("", linkExtractor.rewriteLinks("", TRACKING));
+    }
+
+    @Test
+    public void keepLink() {
+        LinkReplacer keep = (input, type, beginIndex, endIndex, output) -> output.append(input, beginIndex, endIndex);
+        assertEquals(INPUT, linkExtractor.rewriteLinks(INPUT, keep));
+    }
+
+    @Test
+    public void appendable() throws IOException {
+        StringWriter writer = new StringWriter();
+        linkExtractor.rewriteLinks(new StringBuilder(INPUT), SHORTENING, writer);
+        assertEquals("foo <18>, <13> and <17>.", writer.toString());
+
+        StringBuilder sb = new StringBuilder("prefix ");
+        linkExtractor.rewriteLinks(INPUT, SHORTENING, sb);
+        assertEquals("prefix foo <18>, <13> and <17>.", sb.toString());
+    }
+
+    @Test
+    public void inBuilder() {
+        StringBuilder sb = new StringBuilder(INPUT);
+        linkExtractor.rewriteLinksInBuilder(sb, TRACKING);
+        assertEquals(linkExtractor.rewriteLinks(INPUT, TRACKING), sb.toString());
+
+        sb = new StringBuilder(INPUT);
+        linkExtractor.rewriteLinksInBuilder(sb, SHORTENING);
+        assertEquals("foo <18>, <13> and <17>.", sb.toString());
+
+        sb = new StringBuilder("no links");
+        linkExtractor.rewriteLinksInBuilder(sb, TRACKING);
+        assertEquals("no links", sb.toString());
+    }
+
+    @Test
+    public void inBuilderSameAsRewrite() {
+        String[] words = {"foo ", "http://example.org ", "a@b.com ", "www.x.io ", "(", ") ", "\n"};
+        Random random = new Random(1);
+        for (int i = 0; i < 200; i++) {
+            StringBuilder input = new StringBuilder();
+            int count = random.nextInt(20);
+            for (int j = 0; j < count; j++) {
+                input.append(words[random.nextInt(words.length)]);
+            }
+            // Replacements of varying length, some shorter and some longer than the link
+            int seed = i;
+            LinkReplacer replacer = (text, type, beginIndex, endIndex, output) -> {
+                int length = (beginIndex * 31 + seed) % 40;
+                for (int k = 0; k < length; k++) {
+                    output.append((char) ('a' + k % 26));
+                }
+            };
+            String expected = linkExtractor.rewriteLinks(input, replacer);
+            linkExtractor.rewriteLinksInBuilder(input, replacer);
+            assertEquals(expected, input.toString());
+        }
+    }
+
+    @Test
+    public void replacerException() {
+        LinkReplacer failing = (input, type, beginIndex, endIndex, output) -> {
+            throw new IOException("failed");
+        };
+        assertThrows(UncheckedIOException.class, () -> linkExtractor.rewriteLinks(INPUT, failing));
+        assertThrows(UncheckedIOException.class,
+                () -> linkExtractor.rewriteLinksInBuilder(new StringBuilder(INPUT), failing));
+        assertThrows(IOException.class, () -> linkExtractor.rewriteLinks(INPUT, failing, new StringBuilder()));
+    }
+
+    @Test
+    public void nullArguments() {
+        assertThrows(NullPointerException.class, () -> linkExtractor.rewriteLinks(null, TRACKING));
+        assertThrows(NullPointerException.class, () -> linkExtractor.rewriteLinks(INPUT, null));
+        assertThrows(NullPointerException.class, () -> linkExtractor.rewriteLinks(INPUT, TRACKING, null));
+        assertThrows(NullPointerException.class, () -> linkExtractor.rewriteLinksInBuilder(null, TRACKING));
+    }
+}
@@ -0,0 +1,81 @@
+package org.nibor.autolink;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LinkSpanBufferTest {
+
+    private final LinkExtractor linkExtractor = LinkExtractor.builder().build();
+
+    @Test
+    public void extract() {
+        String input = "foo http://example.org a@example.com www.example.com";
+        LinkSpanBuffer links = new LinkSpanBuffer();
+        linkExtractor.extractLinks(input, links);
+
+        assertEquals(3, links.size());
+        assertEquals(LinkType.URL, links.getType(0));
+        assertEquals(4, links.getBeginIndex(0));
+        assertEquals(22, links.getEndIndex(0));
+        assertEquals(LinkType.EMAIL, links.getType(1));
+        assertEquals(LinkType.WWW, links.getType(2));
+        assertEquals("LinkSpanBuffer[URL 4-22, EMAIL 23-36, WWW 37-52]", links.toString());
+
+        LinkSpan link = links.get(1);
+        assertEquals(LinkType.EMAIL, link.getType());
+        assertEquals(23, link.getBeginIndex());
+        assertEquals(36, link.getEndIndex());
+    }
+
+    @Test
+    public void sameAsIterable() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            sb.append("x http://example.org/").append(i).append(" y foo").append(i).append("@example.com");
+        }
+        String input = sb.toString();
+        LinkSpanBuffer links = new LinkSpanBuffer(0);
+        linkExtractor.extractLinks(input, links);
+
+        List<String> expected = TestInputs.format(linkExtractor.extractLinks(input));
+        List<String> actual = new ArrayList<>();
+        links.forEach((type, beginIndex, endIndex) -> actual.add(type + " " + beginIndex + "-" + endIndex));
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void streams() {
+        LinkSpanBuffer links = new LinkSpanBuffer();
+        linkExtractor.extractLinks("http://a.com b@c.com", links);
+        assertEquals(List.of(0, 13), links.beginIndexes().boxed().collect(Collectors.toList()));
+        assertEquals(List.of(12, 20), links.endIndexes().boxed().collect(Collectors.toList()));
+        assertEquals(19, links.lengths().sum());
+    }
+
+    @Test
+    public void clearAndReuse() {
+        LinkSpanBuffer links = new LinkSpanBuffer();
+        linkExtractor.extractLinks("http://a.com", links);
+        linkExtractor.extractLinks("b@c.com", links);
+        assertEquals(2, links.size());
+
+        links.clear();
+        assertTrue(links.isEmpty());
+        linkExtractor.extractLinks("b@c.com", links);
+        assertEquals(1, links.size());
+        assertEquals(LinkType.EMAIL, links.getType(0));
+    }
+
+    @Test
+    public void indexOutOfBounds() {
+        LinkSpanBuffer links = new LinkSpanBuffer();
+        linkExtractor.extractLinks("http://a.com", links);
+        assertThrows(IndexOutOfBoundsException.class, () -> links.getBeginIndex(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> links.getType(-1));
+    }
+}
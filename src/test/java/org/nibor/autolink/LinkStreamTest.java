@@ -0,0 +1,82 @@
+package org.nibor.autolink;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LinkStreamTest {
+
+    private final LinkExtractor linkExtractor = LinkExtractor.builder().build();
+
+    @Test
+    public void stream() {
+        String input = "foo http://example.org a@example.com www.example.com";
+        assertEquals(List.of("URL 4-22", "EMAIL 23-36", "WWW 37-52"),
+                TestInputs.format(linkExtractor.streamLinks(input).collect(Collectors.toList())));
+        assertEquals(List.of("EMAIL 23-36"), TestInputs.format(linkExtractor.streamLinks(input)
+                .filter(link -> link.getType() == LinkType.EMAIL)
+                .collect(Collectors.toList())));
+        assertEquals(0, linkExtractor.streamLinks("").count());
+    }
+
+    @Test
+    public void parallel() {
+        String input = TestInputs.randomText(new Random(42), 500_000);
+        List<String> expected = extractSequential(input);
+        assertEquals(expected,
+                TestInputs.format(linkExtractor.streamLinks(input).parallel().collect(Collectors.toList())));
+        assertEquals(expected,
+                TestInputs.format(StreamSupport.stream(linkExtractor.extractLinks(input).spliterator(), true)
+                        .collect(Collectors.toList())));
+    }
+
+    @Test
+    public void split() {
+        String input = TestInputs.randomText(new Random(1), 200_000);
+        Spliterator<LinkSpan> spliterator = linkExtractor.streamLinks(input).spliterator();
+        assertTrue(spliterator.hasCharacteristics(Spliterator.ORDERED));
+        assertTrue(spliterator.hasCharacteristics(Spliterator.NONNULL));
+        assertFalse(spliterator.hasCharacteristics(Spliterator.SIZED));
+
+        Spliterator<LinkSpan> prefix = spliterator.trySplit();
+        assertNotNull(prefix);
+        List<LinkSpan> links = new ArrayList<>();
+        prefix.forEachRemaining(links::add);
+        while (spliterator.tryAdvance(links::add)) {
+            // Keep going
+        }
+        assertEquals(extractSequential(input), TestInputs.format(links));
+    }
+
+    @Test
+    public void noSplitWithoutBoundary() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            sb.append('a');
+        }
+        Spliterator<LinkSpan> spliterator = linkExtractor.streamLinks(sb).spliterator();
+        assertNull(spliterator.trySplit());
+        assertNull(linkExtractor.streamLinks("short input").spliterator().trySplit());
+    }
+
+    @Test
+    public void nullInput() {
+        assertThrows(NullPointerException.class, () -> linkExtractor.streamLinks(null));
+    }
+
+    private List<String> extractSequential(String input) {
+        return TestInputs.format(linkExtractor.extractLinks(input));
+    }
+}
@@ -0,0 +1,208 @@
+package org.nibor.autolink;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.nibor.autolink.internal.TailExtractor;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class LinkTailerTest {
+
+    private final LinkExtractor linkExtractor = LinkExtractor.builder().build();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void holdsBackIncompleteLink() throws IOException {
+        Path file = tempDir.resolve("log");
+        LinkTailer tailer = linkExtractor.tailer(file, tempDir.resolve("checkpoint"));
+        List<String> links = new ArrayList<>();
+
+        append(file, "visit http://example.org/fo");
+        assertTrue(tailer.poll(link -> links.add(TestInputs.format(link))));
+        assertEquals(List.of(), links);
+        assertEquals(6, tailer.getPosition());
+
+        append(file, "o/bar and ä");
+        assertTrue(tailer.poll(link -> links.add(TestInputs.format(link))));
+        assertEquals(List.of("URL 6-32 http://example.org/foo/bar"), links);
+
+        assertFalse(tailer.poll(link -> links.add(TestInputs.format(link))));
+        append(file, "\n");
+        assertTrue(tailer.poll(link -> links.add(TestInputs.format(link))));
+        assertEquals(40, tailer.getPosition());
+    }
+
+    @Test
+    public void sameAsWholeFile() throws IOException {
+        Random random = new Random(42);
+        for (int i = 0; i < 100; i++) {
+            Path file = tempDir.resolve("log" + i);
+            Path checkpoint = tempDir.resolve("checkpoint" + i);
+            int bufferSize = 1 + random.nextInt(20);
+            LinkTailer tailer = new LinkTailer(linkExtractor, file, checkpoint, bufferSize);
+            List<String> links = new ArrayList<>();
+            StringBuilder sb = new StringBuilder();
+            int appends = random.nextInt(10);
+            for (int j = 0; j < appends; j++) {
+                String chunk = TestInputs.randomText(random, random.nextInt(50));
+                append(file, chunk);
+                sb.append(chunk);
+                if (random.nextBoolean()) {
+                    // Simulate a restart
+                    tailer = new LinkTailer(linkExtractor, file, checkpoint, bufferSize);
+                }
+                tailer.poll(link -> links.add(TestInputs.format(link)));
+            }
+            append(file, "\n");
+            tailer.poll(link -> links.add(TestInputs.format(link)));
+
+            List<String> expected = new ArrayList<>();
+            linkExtractor.extractLinks(file, link -> expected.add(TestInputs.format(link)));
+            assertEquals(expected, links, sb.toString());
+        }
+    }
+
+    @Test
+    public void resumeFromCheckpoint() throws IOException {
+        Path file = tempDir.resolve("log");
+        Path checkpoint = tempDir.resolve("checkpoint");
+        append(file, "a http://a.com b www.b.com");
+        List<String> links = new ArrayList<>();
+        linkExtractor.tailer(file, checkpoint).poll(link -> links.add(TestInputs.format(link)));
+        assertEquals(List.of("URL 2-14 http://a.com"), links);
+        assertTrue(Files.readString(checkpoint).startsWith("17\n"));
+
+        append(file, " c\n");
+        links.clear();
+        LinkTailer tailer = linkExtractor.tailer(file, checkpoint);
+        assertEquals(17, tailer.getPosition());
+        tailer.poll(link -> links.add(TestInputs.format(link)));
+        assertEquals(List.of("WWW 17-26 www.b.com"), links);
+    }
+
+    @Test
+    public void truncated() throws IOException {
+        Path file = tempDir.resolve("log");
+        LinkTailer tailer = linkExtractor.tailer(file, tempDir.resolve("checkpoint"));
+        append(file, "a http://a.com b http://b.com\n");
+        tailer.poll(link -> {
+        });
+        Files.writeString(file, "http://c.com ");
+        List<String> links = new ArrayList<>();
+        tailer.poll(link -> links.add(TestInputs.format(link)));
+        assertEquals(List.of("URL 0-12 http://c.com"), links);
+        assertEquals(13, tailer.getPosition());
+    }
+
+    @Test
+    public void rotated() throws IOException {
+        Path file = tempDir.resolve("log");
+        Path checkpoint = tempDir.resolve("checkpoint");
+        append(file, "a http://a.com\n");
+        linkExtractor.tailer(file, checkpoint).poll(link -> {
+        });
+
+        // The new file is already longer than the position in the old one
+        Files.move(file, tempDir.resolve("log.1"));
+        append(file, "http://b.com http://c.com\n");
+        List<String> links = new ArrayList<>();
+        LinkTailer tailer = linkExtractor.tailer(file, checkpoint);
+        assertEquals(15, tailer.getPosition());
+        assertTrue(tailer.poll(link -> links.add(TestInputs.format(link))));
+        assertEquals(List.of("URL 0-12 http://b.com", "URL 13-25 http://c.com"), links);
+        assertEquals(26, tailer.getPosition());
+    }
+
+    @Test
+    public void checkpointWithoutFileIdentity() throws IOException {
+        Path file = tempDir.resolve("log");
+        Path checkpoint = tempDir.resolve("checkpoint");
+        append(file, "http://a.com http://b.com\n");
+        Files.writeString(checkpoint, "13\n");
+        List<String> links = new ArrayList<>();
+        linkExtractor.tailer(file, checkpoint).poll(link -> links.add(TestInputs.format(link)));
+        assertEquals(List.of("URL 13-25 http://b.com"), links);
+    }
+
+    @Test
+    public void maxBufferSize() throws IOException {
+        Path file = tempDir.resolve("log");
+        TailExtractor tailExtractor = new TailExtractor(linkExtractor, 4, 16);
+        List<String> links = new ArrayList<>();
+
+        // Fits when the buffer has grown to the maximum
+        append(file, "a@b.org " + "http://x.org/ab ");
+        try (FileChannel channel = FileChannel.open(file)) {
+            assertEquals(24, tailExtractor.extract(channel, 0, link -> links.add(TestInputs.format(link))));
+        }
+        assertEquals(List.of("EMAIL 0-7 a@b.org", "URL 8-23 http://x.org/ab"), links);
+
+        // Longer than the maximum without a boundary, so it's held back
+        append(file, "http://x.org/" + "a".repeat(20) + " a@b.org ");
+        try (FileChannel channel = FileChannel.open(file)) {
+            assertEquals(24, tailExtractor.extract(channel, 24, link -> links.add(TestInputs.format(link))));
+        }
+        assertEquals(2, links.size());
+
+        assertThrows(IllegalArgumentException.class, () -> new TailExtractor(linkExtractor, 4, 3));
+        assertThrows(IllegalArgumentException.class, () -> new TailExtractor(linkExtractor, 4, Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void missingFile() throws IOException {
+        LinkTailer tailer = linkExtractor.tailer(tempDir.resolve("log"), tempDir.resolve("checkpoint"));
+        assertFalse(tailer.poll(link -> {
+        }));
+        assertFalse(Files.exists(tempDir.resolve("checkpoint")));
+    }
+
+    @Test
+    public void invalidCheckpoint() throws IOException {
+        Path checkpoint = tempDir.resolve("checkpoint");
+        Files.writeString(checkpoint, "foo");
+        assertThrows(IOException.class, () -> linkExtractor.tailer(tempDir.resolve("log"), checkpoint));
+        Files.writeString(checkpoint, "-1");
+        assertThrows(IOException.class, () -> linkExtractor.tailer(tempDir.resolve("log"), checkpoint));
+    }
+
+    @Test
+    public void follow() throws Exception {
+        Path file = tempDir.resolve("log");
+        append(file, "http://a.com ");
+        LinkTailer tailer = linkExtractor.tailer(file, tempDir.resolve("checkpoint"));
+        List<String> links = new ArrayList<>();
+        int[] polls = {0};
+        tailer.follow(link -> links.add(TestInputs.format(link)), Duration.ofMillis(1), () -> {
+            if (polls[0] == 2) {
+                try {
+                    append(file, "http://b.com ");
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+            }
+            return polls[0]++ == 5;
+        });
+        assertEquals(List.of("URL 0-12 http://a.com", "URL 13-25 http://b.com"), links);
+    }
+
+    private static void append(Path file, String text) throws IOException {
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8), StandardOpenOption.CREATE,
+                StandardOpenOption.APPEND);
+    }
+}
@@ -0,0 +1,92 @@
+package org.nibor.autolink;
+
+import org.junit.jupiter.api.Test;
+import org.nibor.autolink.internal.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ParallelExtractionTest {
+
+    private final LinkExtractor linkExtractor = LinkExtractor.builder().build();
+
+    @Test
+    public void smallInput() {
+        String input = "foo http://example.org and a@example.com";
+        assertEquals(extractSequential(input), TestInputs.format(linkExtractor.extractLinks(input,
+                ForkJoinPool.commonPool())));
+    }
+
+    @Test
+    public void largeInput() throws Exception {
+        String input = TestInputs.randomText(new Random(42), 200_000);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            assertEquals(extractSequential(input), TestInputs.format(linkExtractor.extractLinks(input, executor)));
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(extractSequential(input), TestInputs.format(linkExtractor.extractLinks(input,
+                ForkJoinPool.commonPool())));
+    }
+
+    @Test
+    public void smallChunks() {
+        LinkFinder linkFinder = new TriggerLinkFinder(new UrlScanner(), new WwwScanner(), new EmailScanner(true));
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            String input = TestInputs.randomText(random, random.nextInt(200));
+            int chunkSize = 1 + random.nextInt(10);
+            List<LinkSpan> links = new ParallelExtractor(linkFinder, chunkSize).extract(input,
+                    ForkJoinPool.commonPool());
+            assertEquals(extractSequential(input), TestInputs.format(links), input);
+        }
+    }
+
+    @Test
+    public void noBoundaries() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            sb.append("http://example.org/");
+        }
+        String input = sb.toString();
+        assertEquals(extractSequential(input), TestInputs.format(linkExtractor.extractLinks(input,
+                ForkJoinPool.commonPool())));
+    }
+
+    @Test
+    public void exceptionIsRethrown() {
+        StringBuilder input = new StringBuilder(TestInputs.randomText(new Random(1), 200_000));
+        CharSequence failing = new CharSequence() {
+            @Override
+            public int length() {
+                return input.length();
+            }
+
+            @Override
+            public char charAt(int index) {
+                if (index == input.length() - 1) {
+                    throw new IllegalStateException("test");
+                }
+                return input.charAt(index);
+            }
+
+            @Override
+            public CharSequence subSequence(int start, int end) {
+                return input.subSequence(start, end);
+            }
+        };
+        assertThrows(IllegalStateException.class, () ->
+                linkExtractor.extractLinks(failing, ForkJoinPool.commonPool()));
+    }
+
+    private List<String> extractSequential(String input) {
+        return TestInputs.format(linkExtractor.extractLinks(input));
+    }
+}
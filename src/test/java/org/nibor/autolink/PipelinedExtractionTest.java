@@ -0,0 +1,159 @@
+package org.nibor.autolink;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.nibor.autolink.internal.PipelinedExtractor;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class PipelinedExtractionTest {
+
+    private final LinkExtractor linkExtractor = LinkExtractor.builder().build();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void gzip() throws IOException {
+        String input = TestInputs.randomText(new Random(1), 500_000);
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(input.getBytes(StandardCharsets.UTF_8));
+        }
+        List<String> links = new ArrayList<>();
+        Reader reader = new InputStreamReader(new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray())),
+                StandardCharsets.UTF_8);
+        linkExtractor.extractLinks(reader, executor, link -> links.add(TestInputs.format(link)));
+        assertEquals(extractFromReader(input), links);
+    }
+
+    @Test
+    public void sameAsReader() throws IOException {
+        Random random = new Random(42);
+        for (int i = 0; i < 500; i++) {
+            String input = TestInputs.randomText(random);
+            List<String> links = new ArrayList<>();
+            PipelinedExtractor extractor = new PipelinedExtractor(linkExtractor, 1 + random.nextInt(16),
+                    1 + random.nextInt(3));
+            extractor.extract(new StringReader(input), executor, link -> links.add(TestInputs.format(link)));
+            assertEquals(extractFromReader(input), links, input);
+        }
+    }
+
+    @Test
+    public void readError() {
+        IOException error = new IOException("test");
+        Reader reader = new Reader() {
+            private boolean first = true;
+
+            @Override
+            public int read(char[] buffer, int offset, int length) throws IOException {
+                if (first) {
+                    first = false;
+                    buffer[offset] = ' ';
+                    return 1;
+                }
+                throw error;
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        assertSame(error, assertThrows(IOException.class, () -> linkExtractor.extractLinks(reader, executor, link -> {
+        })));
+    }
+
+    @Test
+    public void consumerError() throws IOException {
+        String input = TestInputs.randomText(new Random(2), 100_000);
+        CountingReader reader = new CountingReader(input);
+        IllegalStateException error = new IllegalStateException("test");
+        PipelinedExtractor extractor = new PipelinedExtractor(linkExtractor, 16, 2);
+        assertSame(error, assertThrows(IllegalStateException.class, () -> extractor.extract(reader, executor, link -> {
+            throw error;
+        })));
+        // The read task stopped early and doesn't use the reader anymore
+        int reads = reader.reads;
+        assertFalse(reads * 16 >= input.length());
+        reader.close();
+        executor.shutdown();
+        assertEquals(reads, reader.reads);
+    }
+
+    @Test
+    public void readInterrupted() throws InterruptedException {
+        String input = "http://example.org ".repeat(10_000);
+        Thread[] readThread = new Thread[1];
+        boolean[] interruptedAfterRun = new boolean[1];
+        Executor threadExecutor = task -> {
+            readThread[0] = new Thread(() -> {
+                task.run();
+                interruptedAfterRun[0] = Thread.currentThread().isInterrupted();
+            });
+            readThread[0].start();
+        };
+        PipelinedExtractor extractor = new PipelinedExtractor(linkExtractor, 16, 2);
+        assertThrows(InterruptedIOException.class, () -> extractor.extract(new StringReader(input), threadExecutor,
+                link -> readThread[0].interrupt()));
+        readThread[0].join();
+        // The read task stops, but leaves the interrupt status for the code that runs the task
+        assertTrue(interruptedAfterRun[0]);
+    }
+
+    @Test
+    public void nullArguments() {
+        assertThrows(NullPointerException.class, () -> linkExtractor.extractLinks((Reader) null, executor, link -> {
+        }));
+        assertThrows(NullPointerException.class, () -> linkExtractor.extractLinks(new StringReader(""), null,
+                link -> {
+                }));
+        assertThrows(NullPointerException.class, () -> linkExtractor.extractLinks(new StringReader(""), executor,
+                null));
+    }
+
+    private List<String> extractFromReader(String input) throws IOException {
+        List<String> links = new ArrayList<>();
+        linkExtractor.extractLinks(new StringReader(input), link -> links.add(TestInputs.format(link)));
+        return links;
+    }
+
+    private static class CountingReader extends StringReader {
+
+        private volatile int reads = 0;
+
+        CountingReader(String s) {
+            super(s);
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            reads++;
+            return super.read(buffer, offset, length);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package org.nibor.autolink;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Flow;
+
+/**
+ * Compares extracting links from 1 MB of text using a reader and using {@link LinkProcessor} with chunks of different
+ * sizes, with a subscriber that requests one link at a time.
+ */
+@State(Scope.Benchmark)
+public class ProcessorBenchmark {
+
+    private static final List<String> WORDS = Arrays.asList(
+            "Lorem ", "ipsum ", "dolor ", "sit ", "amet, ", "with ", "we ", "know ", "(how) ", "it: ", "\n",
+            "http://example.com/path/to/some_page?query=value&other=1 ", "www.something.com/foo ",
+            "foo.bar+tag@example.com "
+    );
+
+    @Param({"64", "1024", "16384"})
+    public int chunkSize;
+
+    private String input;
+    private List<String> chunks;
+    private LinkExtractor linkExtractor;
+
+    public static void main(String[] args) throws Exception {
+        Main.main(args);
+    }
+
+    @Setup
+    public void setup() {
+        Random random = new Random(1);
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() < 1024 * 1024) {
+            sb.append(WORDS.get(random.nextInt(WORDS.size())));
+        }
+        input = sb.toString();
+        chunks = new ArrayList<>();
+        for (int i = 0; i < input.length(); i += chunkSize) {
+            chunks.add(input.substring(i, Math.min(i + chunkSize, input.length())));
+        }
+        linkExtractor = LinkExtractor.builder().build();
+    }
+
+    @Benchmark
+    public long reader() throws IOException {
+        long[] count = {0};
+        linkExtractor.extractLinks(new StringReader(input), link -> count[0]++);
+        return count[0];
+    }
+
+    @Benchmark
+    public long processor() {
+        LinkProcessor processor = linkExtractor.processor();
+        CountingSubscriber subscriber = new CountingSubscriber();
+        processor.subscribe(subscriber);
+        processor.onSubscribe(new Flow.Subscription() {
+            private int index = 0;
+
+            @Override
+            public void request(long n) {
+                if (index < chunks.size()) {
+                    processor.onNext(chunks.get(index++));
+                } else {
+                    processor.onComplete();
+                }
+            }
+
+            @Override
+            public void cancel() {
+            }
+        });
+        return subscriber.count;
+    }
+
+    private static class CountingSubscriber implements Flow.Subscriber<ExtractedLink> {
+
+        private Flow.Subscription subscription;
+        private long count = 0;
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onNext(ExtractedLink item) {
+            count++;
+            subscription.request(1);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+        }
+
+        @Override
+        public void onComplete() {
+        }
+    }
+}
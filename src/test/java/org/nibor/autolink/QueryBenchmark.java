@@ -0,0 +1,128 @@
+package org.nibor.autolink;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Compares the query methods (containsLink, firstLink, countLinks, limit) with the equivalent using the iterator of
+ * {@link LinkExtractor#extractLinks(CharSequence)}, on messages with a few links each.
+ */
+@State(Scope.Benchmark)
+public class QueryBenchmark {
+
+    private static final String[] MESSAGES = {
+            "ok see you there, bring the stuff we talked about yesterday",
+            "check out https://example.com/foo and https://example.com/bar or www.example.org",
+            "mail me at foo@example.com or look at www.example.org, also http://example.net/a_(b)",
+            "where are you? I'm at the station already, the train is late again as usual",
+    };
+
+    private LinkExtractor linkExtractor;
+
+    public static void main(String[] args) throws Exception {
+        Main.main(args);
+    }
+
+    @Setup
+    public void setup() {
+        linkExtractor = LinkExtractor.builder().build();
+    }
+
+    @Benchmark
+    public int containsLink() {
+        int count = 0;
+        for (String message : MESSAGES) {
+            if (linkExtractor.containsLink(message)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int containsLinkIterator() {
+        int count = 0;
+        for (String message : MESSAGES) {
+            if (linkExtractor.extractLinks(message).iterator().hasNext()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int firstLink() {
+        int sum = 0;
+        for (String message : MESSAGES) {
+            LinkSpan link = linkExtractor.firstLink(message);
+            if (link != null) {
+                sum += link.getEndIndex();
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int firstLinkIterator() {
+        int sum = 0;
+        for (String message : MESSAGES) {
+            Iterator<LinkSpan> links = linkExtractor.extractLinks(message).iterator();
+            if (links.hasNext()) {
+                sum += links.next().getEndIndex();
+            }
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public int countLinks() {
+        int count = 0;
+        for (String message : MESSAGES) {
+            count += linkExtractor.countLinks(message);
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int countLinksIterator() {
+        int count = 0;
+        for (String message : MESSAGES) {
+            for (LinkSpan ignored : linkExtractor.extractLinks(message)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int limit() {
+        int count = 0;
+        for (String message : MESSAGES) {
+            count += linkExtractor.extractLinks(message, 2).size();
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int limitIterator() {
+        int count = 0;
+        for (String message : MESSAGES) {
+            List<LinkSpan> links = new ArrayList<>();
+            for (LinkSpan link : linkExtractor.extractLinks(message)) {
+                links.add(link);
+                if (links.size() == 2) {
+                    break;
+                }
+            }
+            count += links.size();
+        }
+        return count;
+    }
+}
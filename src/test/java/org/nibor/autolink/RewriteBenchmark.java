@@ -0,0 +1,74 @@
+package org.nibor.autolink;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares {@link LinkExtractor#rewriteLinks(CharSequence, LinkReplacer)} with rewriting links by hand from
+ * {@link LinkExtractor#extractSpans(CharSequence)}, using substrings for the text and links.
+ */
+@State(Scope.Benchmark)
+public class RewriteBenchmark {
+
+    private static final List<String> WORDS = Arrays.asList(
+            "Lorem ", "ipsum ", "dolor ", "sit ", "amet, ", "with ", "we ", "know ", "(how) ", "it: ",
+            "http://example.com/path/to/some_page?query=value&other=1 ", "www.something.com/foo ",
+            "foo.bar+tag@example.com "
+    );
+
+    private static final String TRACKING_PREFIX = "https://t.example/?to=";
+
+    private static final LinkReplacer TRACKING = (input, type, beginIndex, endIndex, output) ->
+            output.append(TRACKING_PREFIX).append(input, beginIndex, endIndex);
+
+    private String input;
+    private LinkExtractor linkExtractor;
+
+    public static void main(String[] args) throws Exception {
+        Main.main(args);
+    }
+
+    @Setup
+    public void setup() {
+        Random random = new Random(1);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            sb.append(WORDS.get(random.nextInt(WORDS.size())));
+        }
+        input = sb.toString();
+        linkExtractor = LinkExtractor.builder().build();
+    }
+
+    @Benchmark
+    public String rewrite() {
+        return linkExtractor.rewriteLinks(input, TRACKING);
+    }
+
+    @Benchmark
+    public StringBuilder rewriteInBuilder() {
+        StringBuilder sb = new StringBuilder(input);
+        linkExtractor.rewriteLinksInBuilder(sb, TRACKING);
+        return sb;
+    }
+
+    @Benchmark
+    public String spans() {
+        StringBuilder sb = new StringBuilder();
+        for (Span span : linkExtractor.extractSpans(input)) {
+            String text = input.substring(span.getBeginIndex(), span.getEndIndex());
+            if (span instanceof LinkSpan) {
+                sb.append(TRACKING_PREFIX + text);
+            } else {
+                sb.append(text);
+            }
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,75 @@
+package org.nibor.autolink;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures each scanner on its own, on text in different scripts.
+ */
+@State(Scope.Benchmark)
+public class ScannerBenchmark {
+
+    private static final List<String> ASCII = Arrays.asList(
+            "Lorem ", "ipsum ", "dolor ", "sit ", "amet, ", "with ", "we ", "know ", "(how) ", "it: ",
+            "http://example.com/path/to/some_page?query=value&other=1 ", "www.something.com/foo ",
+            "foo.bar+tag@example.com ", "https://en.wikipedia.org/wiki/Link_(The_Legend_of_Zelda) "
+    );
+
+    private static final List<String> CYRILLIC = Arrays.asList(
+            "Съешь ", "же ", "ещё ", "этих ", "мягких ", "французских ", "булок, ", "да ", "выпей ", "чаю. ",
+            "http://пример.рф/путь/к/странице?запрос=значение ", "www.пример.рф/страница ",
+            "иван.петров@пример.рф ", "https://ru.wikipedia.org/wiki/Ссылка_(значения) "
+    );
+
+    private static final List<String> CJK = Arrays.asList(
+            "日本語の", "文章は", "句読点で", "区切られ、", "空白は", "ほとんど", "使われない。", "　",
+            "http://例え.テスト/パス/ページ ", "www.例え.テスト/ページ ",
+            "山田@例え.テスト ", "https://ja.wikipedia.org/wiki/リンク_(曖昧さ回避) "
+    );
+
+    @Param({"ascii", "cyrillic", "cjk"})
+    public String script;
+
+    @Param({"URL", "WWW", "EMAIL"})
+    public LinkType linkType;
+
+    private String input;
+    private LinkExtractor linkExtractor;
+    private final LinkSpanBuffer links = new LinkSpanBuffer();
+
+    public static void main(String[] args) throws Exception {
+        Main.main(args);
+    }
+
+    @Setup
+    public void setup() {
+        List<String> words = script.equals("ascii") ? ASCII : script.equals("cyrillic") ? CYRILLIC : CJK;
+        input = generateText(words, 50_000);
+        linkExtractor = LinkExtractor.builder().linkTypes(EnumSet.of(linkType)).build();
+    }
+
+    @Benchmark
+    public int extract() {
+        links.clear();
+        linkExtractor.extractLinks(input, links);
+        return links.size();
+    }
+
+    private static String generateText(List<String> wordList, int words) {
+        Random random = new Random(1);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            sb.append(wordList.get(random.nextInt(wordList.size())));
+        }
+        return sb.toString();
+    }
+}
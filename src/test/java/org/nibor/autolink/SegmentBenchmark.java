@@ -0,0 +1,70 @@
+package org.nibor.autolink;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares {@link LinkExtractor#extractLinksFromSegments(List, LinkConsumer)} with concatenating the segments and
+ * extracting from the result, for 1 MB of text in segments of different sizes.
+ */
+@State(Scope.Benchmark)
+public class SegmentBenchmark {
+
+    private static final List<String> WORDS = Arrays.asList(
+            "Lorem ", "ipsum ", "dolor ", "sit ", "amet, ", "with ", "we ", "know ", "(how) ", "it: ", "\n",
+            "http://example.com/path/to/some_page?query=value&other=1 ", "www.something.com/foo ",
+            "foo.bar+tag@example.com "
+    );
+
+    @Param({"64", "4096"})
+    public int segmentSize;
+
+    private List<String> segments;
+    private LinkExtractor linkExtractor;
+    private final LinkSpanBuffer links = new LinkSpanBuffer();
+
+    public static void main(String[] args) throws Exception {
+        Main.main(args);
+    }
+
+    @Setup
+    public void setup() {
+        Random random = new Random(1);
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() < 1024 * 1024) {
+            sb.append(WORDS.get(random.nextInt(WORDS.size())));
+        }
+        segments = new ArrayList<>();
+        for (int i = 0; i < sb.length(); i += segmentSize) {
+            segments.add(sb.substring(i, Math.min(sb.length(), i + segmentSize)));
+        }
+        linkExtractor = LinkExtractor.builder().build();
+    }
+
+    @Benchmark
+    public int segmented() {
+        links.clear();
+        linkExtractor.extractLinksFromSegments(segments, links);
+        return links.size();
+    }
+
+    @Benchmark
+    public int concatenated() {
+        links.clear();
+        StringBuilder sb = new StringBuilder();
+        for (String segment : segments) {
+            sb.append(segment);
+        }
+        linkExtractor.extractLinks(sb.toString(), links);
+        return links.size();
+    }
+}
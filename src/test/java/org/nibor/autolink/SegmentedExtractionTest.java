@@ -0,0 +1,73 @@
+package org.nibor.autolink;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.CharBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class SegmentedExtractionTest {
+
+    private final LinkExtractor linkExtractor = LinkExtractor.builder().build();
+
+    @Test
+    public void linkAcrossSegments() {
+        List<String> segments = Arrays.asList("foo htt", "p://exam", "ple.org b", "ar a", "@", "example.com");
+        assertEquals(List.of("URL 4-22", "EMAIL 27-40"),
+                TestInputs.format(linkExtractor.extractLinksFromSegments(segments)));
+    }
+
+    @Test
+    public void linkAcrossManySegments() {
+        List<String> segments = new ArrayList<>();
+        for (char c : "x http://example.org/long/path y".toCharArray()) {
+            segments.add(String.valueOf(c));
+        }
+        assertEquals(List.of("URL 2-30"), TestInputs.format(linkExtractor.extractLinksFromSegments(segments)));
+    }
+
+    @Test
+    public void emptySegments() {
+        assertEquals(List.of(), TestInputs.format(linkExtractor.extractLinksFromSegments(List.of())));
+        List<String> segments = Arrays.asList("", "www.", "", "example.com", "");
+        assertEquals(List.of("WWW 0-15"), TestInputs.format(linkExtractor.extractLinksFromSegments(segments)));
+    }
+
+    @Test
+    public void segmentTypes() {
+        List<CharSequence> segments = Arrays.asList(new StringBuilder("foo http://exa"),
+                CharBuffer.wrap("mple.org a@b.".toCharArray()), "com");
+        assertEquals(List.of("URL 4-22", "EMAIL 23-30"),
+                TestInputs.format(linkExtractor.extractLinksFromSegments(segments)));
+    }
+
+    @Test
+    public void randomSegments() {
+        Random random = new Random(42);
+        for (int i = 0; i < 1000; i++) {
+            String input = TestInputs.randomText(random);
+            List<CharSequence> segments = new ArrayList<>();
+            int index = 0;
+            while (index < input.length()) {
+                int end = Math.min(input.length(), index + random.nextInt(12));
+                segments.add(input.substring(index, end));
+                index = end;
+            }
+            assertEquals(TestInputs.format(linkExtractor.extractLinks(input, Integer.MAX_VALUE)),
+                    TestInputs.format(linkExtractor.extractLinksFromSegments(segments)), input);
+        }
+    }
+
+    @Test
+    public void nullArguments() {
+        assertThrows(NullPointerException.class, () -> linkExtractor.extractLinksFromSegments(null));
+        assertThrows(NullPointerException.class, () -> linkExtractor.extractLinksFromSegments(List.of("a"), null));
+        assertThrows(NullPointerException.class,
+                () -> linkExtractor.extractLinksFromSegments(Arrays.asList("a", null)));
+    }
+}
@@ -0,0 +1,59 @@
+package org.nibor.autolink;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures extraction from many short inputs, where the per-call setup matters more than the scanning.
+ */
+@State(Scope.Thread)
+public class ShortMessageBenchmark {
+
+    private static final String[] MESSAGES = {
+            "ok see you there",
+            "check out https://example.com/foo",
+            "lol",
+            "mail me at foo@example.com or look at www.example.org",
+            "where are you? I'm at the station already",
+            "http://example.org/a_(b)"
+    };
+
+    private LinkExtractor linkExtractor;
+    private LinkMatcher linkMatcher;
+
+    public static void main(String[] args) throws Exception {
+        Main.main(args);
+    }
+
+    @Setup
+    public void setup() {
+        linkExtractor = LinkExtractor.builder().build();
+        linkMatcher = linkExtractor.matcher("");
+    }
+
+    @Benchmark
+    public int iterable() {
+        int count = 0;
+        for (String message : MESSAGES) {
+            for (LinkSpan link : linkExtractor.extractLinks(message)) {
+                count += link.getEndIndex();
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int matcher() {
+        int count = 0;
+        for (String message : MESSAGES) {
+            linkMatcher.reset(message);
+            while (linkMatcher.find()) {
+                count += linkMatcher.end();
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,63 @@
+package org.nibor.autolink;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares counting the URLs in 4 MB of text using the iterable, a sequential stream and a parallel stream.
+ */
+@State(Scope.Benchmark)
+public class StreamBenchmark {
+
+    private static final List<String> WORDS = Arrays.asList(
+            "Lorem ", "ipsum ", "dolor ", "sit ", "amet, ", "with ", "we ", "know ", "(how) ", "it: ", "\n",
+            "http://example.com/path/to/some_page?query=value&other=1 ", "www.something.com/foo ",
+            "foo.bar+tag@example.com "
+    );
+
+    private String input;
+    private LinkExtractor linkExtractor;
+
+    public static void main(String[] args) throws Exception {
+        Main.main(args);
+    }
+
+    @Setup
+    public void setup() {
+        Random random = new Random(1);
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() < 4 * 1024 * 1024) {
+            sb.append(WORDS.get(random.nextInt(WORDS.size())));
+        }
+        input = sb.toString();
+        linkExtractor = LinkExtractor.builder().build();
+    }
+
+    @Benchmark
+    public long iterable() {
+        long count = 0;
+        for (LinkSpan link : linkExtractor.extractLinks(input)) {
+            if (link.getType() == LinkType.URL) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public long stream() {
+        return linkExtractor.streamLinks(input).filter(link -> link.getType() == LinkType.URL).count();
+    }
+
+    @Benchmark
+    public long parallelStream() {
+        return linkExtractor.streamLinks(input).parallel().filter(link -> link.getType() == LinkType.URL).count();
+    }
+}
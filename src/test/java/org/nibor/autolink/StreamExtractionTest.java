@@ -0,0 +1,86 @@
+package org.nibor.autolink;
+
+import org.junit.jupiter.api.Test;
+import org.nibor.autolink.internal.StreamExtractor;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class StreamExtractionTest {
+
+    private final LinkExtractor linkExtractor = LinkExtractor.builder().build();
+
+    @Test
+    public void reader() throws IOException {
+        String input = "foo http://example.org/bar and a@example.com, www.example.com.";
+        List<String> links = new ArrayList<>();
+        linkExtractor.extractLinks(new StringReader(input), link -> links.add(link.getBeginOffset() + "-" +
+                link.getEndOffset() + " " + link.getType() + " " + link.getText()));
+        assertEquals(List.of("4-26 URL http://example.org/bar", "31-44 EMAIL a@example.com",
+                "46-61 WWW www.example.com"), links);
+    }
+
+    @Test
+    public void channel() throws IOException {
+        String input = "ä http://üñîçøðé.com/ä ä";
+        List<ExtractedLink> links = new ArrayList<>();
+        byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+        linkExtractor.extractLinks(Channels.newChannel(new ByteArrayInputStream(bytes)), StandardCharsets.UTF_8,
+                links::add);
+        assertEquals(1, links.size());
+        assertEquals(2, links.get(0).getBeginOffset());
+        assertEquals(22, links.get(0).getEndOffset());
+        assertEquals("http://üñîçøðé.com/ä", links.get(0).getText());
+    }
+
+    @Test
+    public void linksAcrossChunks() throws IOException {
+        String input = "x http://example.org/foo(bar) y a@example.com z www.example.com";
+        for (int bufferSize = 1; bufferSize <= input.length() + 1; bufferSize++) {
+            assertEquals(extractInMemory(input), extractStreaming(input, bufferSize, false), "buffer " + bufferSize);
+            assertEquals(extractInMemory(input), extractStreaming(input, bufferSize, true), "buffer " + bufferSize);
+        }
+    }
+
+    @Test
+    public void sameAsInMemory() throws IOException {
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            String input = TestInputs.randomText(random);
+            int bufferSize = 1 + random.nextInt(16);
+            assertEquals(extractInMemory(input), extractStreaming(input, bufferSize, random.nextBoolean()), input);
+        }
+    }
+
+    private List<String> extractInMemory(String input) {
+        List<String> links = new ArrayList<>();
+        for (LinkSpan link : linkExtractor.extractLinks(input)) {
+            links.add(link.getType() + " " + link.getBeginIndex() + "-" + link.getEndIndex() + " " +
+                    input.substring(link.getBeginIndex(), link.getEndIndex()));
+        }
+        return links;
+    }
+
+    private List<String> extractStreaming(String input, int bufferSize, boolean write) throws IOException {
+        List<String> links = new ArrayList<>();
+        StreamExtractor streamExtractor = new StreamExtractor(linkExtractor, bufferSize,
+                link -> links.add(TestInputs.format(link)));
+        if (write) {
+            for (int i = 0; i < input.length(); i += 3) {
+                streamExtractor.write(input.substring(i, Math.min(i + 3, input.length())));
+            }
+            streamExtractor.finish();
+        } else {
+            streamExtractor.read(new StringReader(input));
+        }
+        return links;
+    }
+}
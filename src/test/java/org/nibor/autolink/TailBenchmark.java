@@ -0,0 +1,84 @@
+package org.nibor.autolink;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares picking up the links of 4 KB appended to a 16 MB log file using a {@link LinkTailer} with scanning the
+ * whole file again.
+ */
+@State(Scope.Benchmark)
+public class TailBenchmark {
+
+    private static final List<String> WORDS = Arrays.asList(
+            "Lorem ", "ipsum ", "dolor ", "sit ", "amet, ", "with ", "we ", "know ", "(how) ", "it: ", "\n",
+            "http://example.com/path/to/some_page?query=value&other=1 ", "www.something.com/foo ",
+            "foo.bar+tag@example.com "
+    );
+
+    private Path dir;
+    private Path file;
+    private byte[] appended;
+    private LinkExtractor linkExtractor;
+    private LinkTailer tailer;
+
+    public static void main(String[] args) throws Exception {
+        Main.main(args);
+    }
+
+    @Setup
+    public void setup() throws IOException {
+        dir = Files.createTempDirectory("autolink-tail");
+        file = dir.resolve("log");
+        Files.write(file, text(new Random(1), 16 * 1024 * 1024));
+        appended = text(new Random(2), 4096);
+        linkExtractor = LinkExtractor.builder().build();
+        tailer = linkExtractor.tailer(file, dir.resolve("checkpoint"));
+        tailer.poll(link -> {
+        });
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.delete(file);
+        Files.delete(dir.resolve("checkpoint"));
+        Files.delete(dir);
+    }
+
+    @Benchmark
+    public long tailer() throws IOException {
+        Files.write(file, appended, StandardOpenOption.APPEND);
+        long[] count = {0};
+        tailer.poll(link -> count[0]++);
+        return count[0];
+    }
+
+    @Benchmark
+    public long rescan() throws IOException {
+        Files.write(file, appended, StandardOpenOption.APPEND);
+        long[] count = {0};
+        linkExtractor.extractLinks(file, link -> count[0]++);
+        return count[0];
+    }
+
+    private static byte[] text(Random random, int length) {
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() < length) {
+            sb.append(WORDS.get(random.nextInt(WORDS.size())));
+        }
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
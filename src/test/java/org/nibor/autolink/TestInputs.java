@@ -0,0 +1,66 @@
+package org.nibor.autolink;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Random inputs and string forms of links, for tests that check that different ways of extracting links give the same
+ * result.
+ */
+class TestInputs {
+
+    // Links and parts of them, characters that end links or need special handling in them, and non-ASCII characters of
+    // each length in UTF-8 (including Unicode spaces)
+    private static final String[] PIECES = {
+            "a", "b", "1", "9", "w", "ww", "www", "www.", ".", "..", ",", ";", ":", "//", "://", "@", "@@", "+", "-",
+            "_", "/", "#", "%", "?", "!", "(", ")", "[", "]", "{", "}", "'", "\"", "<", ">", " ", "\n", "ä", "ü",
+            "€", "😀", "\u0085", " ", " ", " ", " ", " ", "　", "、", "‐", "¿", "x1", "1a", "a1://", "a.b", "foo@",
+            "http", "https://", "mailto:", "example.com", "/path", "http://example.org",
+            "http://example.org/foo_(bar)", "http://ä.com/", "foo@example.com", "www.example.com"
+    };
+
+    private TestInputs() {
+    }
+
+    /**
+     * @return a text of up to 40 random pieces
+     */
+    static String randomText(Random random) {
+        StringBuilder sb = new StringBuilder();
+        int pieces = random.nextInt(40);
+        for (int i = 0; i < pieces; i++) {
+            sb.append(PIECES[random.nextInt(PIECES.length)]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @return a text of random pieces that is at least the length
+     */
+    static String randomText(Random random, int length) {
+        StringBuilder sb = new StringBuilder();
+        while (sb.length() < length) {
+            sb.append(PIECES[random.nextInt(PIECES.length)]);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * @return the links as "TYPE begin-end"
+     */
+    static List<String> format(Iterable<? extends LinkSpan> links) {
+        List<String> result = new ArrayList<>();
+        for (LinkSpan link : links) {
+            result.add(link.getType() + " " + link.getBeginIndex() + "-" + link.getEndIndex());
+        }
+        return result;
+    }
+
+    /**
+     * @return the link as "TYPE begin-end text"
+     */
+    static String format(ExtractedLink link) {
+        return link.getType() + " " + link.getBeginOffset() + "-" + link.getEndOffset() + " " + link.getText();
+    }
+}
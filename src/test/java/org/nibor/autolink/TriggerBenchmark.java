@@ -0,0 +1,83 @@
+package org.nibor.autolink;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Measures how fast the extractor gets from one trigger character to the next, on text with few and many links.
+ */
+@State(Scope.Benchmark)
+public class TriggerBenchmark {
+
+    private static final List<String> PROSE = Arrays.asList(
+            "Lorem ", "ipsum ", "dolor ", "sit ", "amet ", "consectetur ", "adipiscing ", "elit ", "sed ", "do ",
+            "with ", "we ", "know ", "how ", "it: ", "labore ", "et ", "dolore ", "magna ", "aliqua. ", "\n"
+    );
+
+    private static final List<String> LINKS = Arrays.asList(
+            "http://example.com ", "https://test.com/foo_(bar) ", "www.something.com ", "foo.bar@example.com "
+    );
+
+    @Param({"sparse", "dense"})
+    public String corpus;
+
+    @Param({"all", "url"})
+    public String linkTypes;
+
+    private String input;
+    private byte[] utf8;
+    private LinkExtractor linkExtractor;
+
+    public static void main(String[] args) throws Exception {
+        Main.main(args);
+    }
+
+    @Setup
+    public void setup() {
+        // Sparse: about one link per 1000 words, dense: about one link per 4 words
+        input = generateText(corpus.equals("sparse") ? 1000 : 4, 100_000);
+        utf8 = input.getBytes(StandardCharsets.UTF_8);
+        linkExtractor = LinkExtractor.builder()
+                .linkTypes(linkTypes.equals("all") ? EnumSet.allOf(LinkType.class) : EnumSet.of(LinkType.URL))
+                .build();
+    }
+
+    @Benchmark
+    public int string() {
+        LinkSpanBuffer links = new LinkSpanBuffer();
+        linkExtractor.extractLinks(input, links);
+        return links.size();
+    }
+
+    @Benchmark
+    public int utf8() {
+        int count = 0;
+        for (LinkSpan ignore : linkExtractor.extractUtf8Links(utf8, 0, utf8.length)) {
+            count++;
+        }
+        return count;
+    }
+
+    private static String generateText(int wordsPerLink, int words) {
+        Random random = new Random(1);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            if (random.nextInt(wordsPerLink) == 0) {
+                sb.append(LINKS.get(random.nextInt(LINKS.size())));
+            } else {
+                sb.append(PROSE.get(random.nextInt(PROSE.size())));
+            }
+        }
+        return sb.toString();
+    }
+}
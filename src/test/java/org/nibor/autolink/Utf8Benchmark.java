@@ -0,0 +1,68 @@
+package org.nibor.autolink;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Compares extracting links from UTF-8 bytes directly with decoding them to a string first.
+ */
+@State(Scope.Benchmark)
+public class Utf8Benchmark {
+
+    private static final List<String> WORDS = Arrays.asList(
+            "Lorem ", "ipsum ", "dolor ", "sit ", "amet ", "Grüße ", "привет ", "日本語 ", "　",
+            ".", ",", ":", "@", "(", ")", "http://example.com", "https://üñîçøðé.com/ä",
+            "www.something.com", "foo.bar@example.com"
+    );
+
+    private static final byte[] INPUT = generateText(WORDS, 10000).getBytes(StandardCharsets.UTF_8);
+
+    private final LinkExtractor linkExtractor = LinkExtractor.builder().build();
+
+    public static void main(String[] args) throws Exception {
+        System.out.println("input length in bytes: " + INPUT.length);
+        Main.main(args);
+    }
+
+    @Benchmark
+    public int decodeThenExtract() {
+        String input = new String(INPUT, StandardCharsets.UTF_8);
+        return count(linkExtractor.extractLinks(input));
+    }
+
+    @Benchmark
+    public int extractUtf8() {
+        return count(linkExtractor.extractUtf8Links(INPUT, 0, INPUT.length));
+    }
+
+    @Benchmark
+    public int extractUtf8WithUtf16Offsets() {
+        Iterable<LinkSpan> links = linkExtractor.extractUtf8Links(INPUT, 0, INPUT.length);
+        return count(Autolink.toUtf16(INPUT, 0, INPUT.length, links));
+    }
+
+    private static int count(Iterable<LinkSpan> links) {
+        int count = 0;
+        for (LinkSpan ignore : links) {
+            count++;
+        }
+        return count;
+    }
+
+    private static String generateText(List<String> wordList, int words) {
+        Random random = new Random(1);
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < words; i++) {
+            String word = wordList.get(random.nextInt(wordList.size()));
+            sb.append(word);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,169 @@
+package org.nibor.autolink;
+
+import org.junit.jupiter.api.Test;
+import org.nibor.autolink.internal.Utf8CharSequence;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class Utf8ExtractionTest {
+
+    private final LinkExtractor linkExtractor = LinkExtractor.builder().emailDomainMustHaveDot(false).build();
+
+    @Test
+    public void byteOffsets() {
+        String input = "ä http://üñîçøðé.com/ä ä";
+        byte[] bytes = ("xx" + input).getBytes(StandardCharsets.UTF_8);
+        List<String> links = new ArrayList<>();
+        for (LinkSpan link : linkExtractor.extractUtf8Links(bytes, 2, bytes.length - 2)) {
+            links.add(link.getBeginIndex() + "-" + link.getEndIndex());
+        }
+        assertEquals(List.of("3-31"), links);
+    }
+
+    @Test
+    public void utf16Offsets() {
+        String input = "ä http://üñîçøðé.com/😀 ä";
+        ByteBuffer buffer = ByteBuffer.wrap(input.getBytes(StandardCharsets.UTF_8));
+        List<String> links = new ArrayList<>();
+        for (LinkSpan link : Autolink.toUtf16(buffer, linkExtractor.extractUtf8Links(buffer))) {
+            links.add(input.substring(link.getBeginIndex(), link.getEndIndex()));
+        }
+        assertEquals(List.of("http://üñîçøðé.com/😀"), links);
+    }
+
+    @Test
+    public void utf16OffsetsAfterInvalidLeadByte() {
+        for (int lead = 0xF8; lead <= 0xFF; lead++) {
+            byte[] prefix = "ä ".getBytes(StandardCharsets.UTF_8);
+            byte[] rest = " http://a.com/😀 ä".getBytes(StandardCharsets.UTF_8);
+            byte[] bytes = new byte[prefix.length + 1 + rest.length];
+            System.arraycopy(prefix, 0, bytes, 0, prefix.length);
+            bytes[prefix.length] = (byte) lead;
+            System.arraycopy(rest, 0, bytes, prefix.length + 1, rest.length);
+            String decoded = new String(bytes, StandardCharsets.UTF_8);
+            List<String> links = new ArrayList<>();
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            for (LinkSpan link : Autolink.toUtf16(buffer, linkExtractor.extractUtf8Links(buffer))) {
+                links.add(decoded.substring(link.getBeginIndex(), link.getEndIndex()));
+            }
+            assertEquals(List.of("http://a.com/😀"), links, "lead byte " + Integer.toHexString(lead));
+        }
+    }
+
+    @Test
+    public void unicodeWhitespaceEndsUrl() {
+        assertEquals(List.of("URL 0-13"), extractUtf8("http://a.com/ b", false));
+        assertEquals(List.of("URL 0-13"), extractUtf8("http://a.com/　b", true));
+        assertEquals(List.of("URL 0-17"), extractUtf8("http://a.com/、b", false));
+    }
+
+    @Test
+    public void indexOfAny() {
+        long[] patterns = {Utf8CharSequence.pattern((byte) ':'), Utf8CharSequence.pattern((byte) '@')};
+        for (int length = 0; length < 40; length++) {
+            for (int position = 0; position <= length; position++) {
+                byte[] bytes = new byte[length];
+                Arrays.fill(bytes, (byte) 0xC3);
+                if (position < length) {
+                    bytes[position] = '@';
+                }
+                ByteBuffer direct = ByteBuffer.allocateDirect(length);
+                direct.put(bytes).flip();
+                assertEquals(position, new Utf8CharSequence(bytes, 0, length).indexOfAny(patterns, 0, length));
+                assertEquals(position, new Utf8CharSequence(direct).indexOfAny(patterns, 0, length));
+            }
+        }
+    }
+
+    @Test
+    public void sameAsDecoded() {
+        Random random = new Random(42);
+        for (int i = 0; i < 2000; i++) {
+            String input = TestInputs.randomText(random);
+            assertEquals(extract(input), extractUtf8(input, random.nextBoolean()), input);
+        }
+    }
+
+    @Test
+    public void utf16OffsetsAfterMalformedBytes() {
+        // Stray continuation byte, invalid lead byte followed by continuation bytes, overlong encoding, surrogate
+        assertEquals(List.of("URL 2-14"), utf16Links(bytes(0x80), " http://x.org"));
+        assertEquals(List.of("EMAIL 5-12"), utf16Links(bytes(0xF5, 0x80, 0x80, 0x80), " a@x.org"));
+        assertEquals(List.of("EMAIL 3-10"), utf16Links(bytes(0xC0, 0xAF), " a@x.org"));
+        assertEquals(List.of("URL 2-14"), utf16Links(bytes(0xED, 0xA0, 0x80), " http://x.org"));
+        // Incomplete sequences are replaced by a single U+FFFD each
+        assertEquals(List.of("URL 2-14"), utf16Links(bytes(0xF0, 0x9F, 0x98), " http://x.org"));
+        assertEquals(List.of("URL 3-15"), utf16Links(bytes(0xE2, 0x82, 0xE2), " http://x.org"));
+    }
+
+    @Test
+    public void utf16OffsetsSameAsDecodedForArbitraryBytes() {
+        Random random = new Random(42);
+        for (int i = 0; i < 5000; i++) {
+            byte[] bytes = TestInputs.randomText(random).getBytes(StandardCharsets.UTF_8);
+            // Overwrite some bytes with non-ASCII ones, which makes most of the sequences around them invalid
+            int changes = bytes.length > 0 ? random.nextInt(6) : 0;
+            for (int j = 0; j < changes; j++) {
+                bytes[random.nextInt(bytes.length)] = (byte) (0x80 + random.nextInt(0x80));
+            }
+            String decoded = new String(bytes, StandardCharsets.UTF_8);
+            assertEquals(TestInputs.format(linkExtractor.extractLinks(decoded)), utf16Links(bytes, ""),
+                    Arrays.toString(bytes));
+
+            Utf8CharSequence sequence = new Utf8CharSequence(bytes, 0, bytes.length);
+            int start = random.nextInt(bytes.length + 1);
+            int end = start + random.nextInt(bytes.length - start + 1);
+            assertEquals(sequence.decode(start, end).length(), sequence.utf16Length(start, end),
+                    Arrays.toString(bytes));
+        }
+    }
+
+    private List<String> extract(String input) {
+        List<String> links = new ArrayList<>();
+        for (LinkSpan link : linkExtractor.extractLinks(input)) {
+            // Convert to byte offsets
+            int begin = input.substring(0, link.getBeginIndex()).getBytes(StandardCharsets.UTF_8).length;
+            int end = input.substring(0, link.getEndIndex()).getBytes(StandardCharsets.UTF_8).length;
+            links.add(link.getType() + " " + begin + "-" + end);
+        }
+        return links;
+    }
+
+    private static byte[] bytes(int... values) {
+        byte[] bytes = new byte[values.length];
+        for (int i = 0; i < values.length; i++) {
+            bytes[i] = (byte) values[i];
+        }
+        return bytes;
+    }
+
+    private List<String> utf16Links(byte[] prefix, String rest) {
+        byte[] restBytes = rest.getBytes(StandardCharsets.UTF_8);
+        byte[] bytes = Arrays.copyOf(prefix, prefix.length + restBytes.length);
+        System.arraycopy(restBytes, 0, bytes, prefix.length, restBytes.length);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        return TestInputs.format(Autolink.toUtf16(buffer, linkExtractor.extractUtf8Links(buffer)));
+    }
+
+    private List<String> extractUtf8(String input, boolean direct) {
+        byte[] bytes = input.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer;
+        if (direct) {
+            buffer = ByteBuffer.allocateDirect(bytes.length);
+            buffer.put(bytes);
+            buffer.flip();
+        } else {
+            buffer = ByteBuffer.wrap(bytes);
+        }
+        List<String> links = TestInputs.format(linkExtractor.extractUtf8Links(buffer));
+        assertEquals(0, buffer.position());
+        return links;
+    }
+}